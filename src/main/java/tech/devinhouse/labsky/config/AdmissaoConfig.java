@@ -0,0 +1,56 @@
+package tech.devinhouse.labsky.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import tech.devinhouse.labsky.services.LimiteAdmissao;
+
+import java.time.Duration;
+
+/**
+ * Registra o {@link FiltroAdmissao} na frente dos endpoints {@code /api/*} da implementação bloqueante, com os
+ * limites de {@code labsky.admissao.checkin.*} e {@code labsky.admissao.consultas.*}.
+ * <p>
+ * O filtro é executado depois do filtro de observação do Spring, para que as rejeições também apareçam na métrica
+ * {@code http.server.requests}, e antes dos demais filtros. Com {@code labsky.admissao.habilitada=false} o filtro não
+ * é aplicado.
+ * <p>
+ * O limite por cliente ({@code taxa-por-cliente} e {@code rajada-por-cliente}) só é aplicado com
+ * {@code labsky.admissao.cabecalho-cliente} configurado. Sem o cabeçalho, o cliente seria o endereço IP, e todos os
+ * quiosques atrás do mesmo NAT ou balanceador de carga dividiriam um único balde de tokens.
+ */
+@Configuration
+@Profile("!reativo")
+public class AdmissaoConfig {
+
+    @Bean
+    public FilterRegistrationBean<FiltroAdmissao> filtroAdmissao(MeterRegistry registry,
+                                                                 @Value("${labsky.admissao.checkin.concorrencia:32}") int concorrenciaCheckin,
+                                                                 @Value("${labsky.admissao.checkin.fila:64}") int filaCheckin,
+                                                                 @Value("${labsky.admissao.checkin.espera:100ms}") Duration esperaCheckin,
+                                                                 @Value("${labsky.admissao.checkin.taxa-por-cliente:5}") double taxaCheckin,
+                                                                 @Value("${labsky.admissao.checkin.rajada-por-cliente:10}") int rajadaCheckin,
+                                                                 @Value("${labsky.admissao.consultas.concorrencia:128}") int concorrenciaConsultas,
+                                                                 @Value("${labsky.admissao.consultas.fila:256}") int filaConsultas,
+                                                                 @Value("${labsky.admissao.consultas.espera:50ms}") Duration esperaConsultas,
+                                                                 @Value("${labsky.admissao.consultas.taxa-por-cliente:50}") double taxaConsultas,
+                                                                 @Value("${labsky.admissao.consultas.rajada-por-cliente:100}") int rajadaConsultas,
+                                                                 @Value("${labsky.admissao.cabecalho-cliente:}") String cabecalhoCliente,
+                                                                 @Value("${labsky.admissao.habilitada:true}") boolean habilitada) {
+        boolean limitePorCliente = !cabecalhoCliente.isBlank();
+        LimiteAdmissao checkin = new LimiteAdmissao("checkin", registry, concorrenciaCheckin, filaCheckin, esperaCheckin,
+                limitePorCliente ? taxaCheckin : 0, rajadaCheckin);
+        LimiteAdmissao consultas = new LimiteAdmissao("consultas", registry, concorrenciaConsultas, filaConsultas, esperaConsultas,
+                limitePorCliente ? taxaConsultas : 0, rajadaConsultas);
+        FilterRegistrationBean<FiltroAdmissao> registro = new FilterRegistrationBean<>(new FiltroAdmissao(checkin, consultas, cabecalhoCliente));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        registro.setEnabled(habilitada);
+        return registro;
+    }
+
+}
@@ -0,0 +1,85 @@
+package tech.devinhouse.labsky.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.services.LimiteAdmissao;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Aplica o controle de admissão aos endpoints da API antes que a requisição chegue ao controller: o check-in
+ * ({@code POST /api/passageiros/confirmacao} e {@code /lote}) e as consultas ({@code GET}) têm limites separados,
+ * para que um pico de check-ins não degrade as consultas e vice-versa. As demais requisições não são limitadas.
+ * <p>
+ * As requisições rejeitadas recebem imediatamente {@code 503 Service Unavailable} com o cabeçalho
+ * {@code Retry-After}, e o motivo {@code sobrecarga} é registrado na métrica {@code http.server.requests}.
+ */
+public class FiltroAdmissao extends OncePerRequestFilter {
+
+    private static final byte[] MENSAGEM = CodigoErro.SERVICO_SOBRECARREGADO.getMensagem().getBytes(StandardCharsets.UTF_8);
+
+    private final LimiteAdmissao checkin;
+    private final LimiteAdmissao consultas;
+    private final String cabecalhoCliente;
+
+    public FiltroAdmissao(LimiteAdmissao checkin, LimiteAdmissao consultas, String cabecalhoCliente) {
+        this.checkin = checkin;
+        this.consultas = consultas;
+        this.cabecalhoCliente = cabecalhoCliente == null || cabecalhoCliente.isBlank() ? null : cabecalhoCliente;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        LimiteAdmissao limite = limite(request);
+        if (limite == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        int retentarEm = limite.admite(cliente(request));
+        if (retentarEm != LimiteAdmissao.ADMITIDA) {
+            rejeita(request, response, retentarEm);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limite.libera();
+        }
+    }
+
+    private LimiteAdmissao limite(HttpServletRequest request) {
+        String caminho = request.getRequestURI();
+        if (HttpMethod.POST.matches(request.getMethod()) && caminho.startsWith("/api/passageiros/confirmacao")) {
+            return checkin;
+        }
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return consultas;
+        }
+        return null;
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String cliente = cabecalhoCliente == null ? null : request.getHeader(cabecalhoCliente);
+        return cliente == null ? request.getRemoteAddr() : cliente;
+    }
+
+    private static void rejeita(HttpServletRequest request, HttpServletResponse response, int retentarEm) throws IOException {
+        request.setAttribute(MetricasConfig.ATRIBUTO_MOTIVO, CodigoErro.SERVICO_SOBRECARREGADO.getMotivo());
+        response.setStatus(CodigoErro.SERVICO_SOBRECARREGADO.getStatus());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retentarEm));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(MENSAGEM.length);
+        response.getOutputStream().write(MENSAGEM);
+    }
+
+}
@@ -0,0 +1,31 @@
+package tech.devinhouse.labsky.config;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Acrescenta a tag {@code motivo} à métrica {@code http.server.requests} dos endpoints, com o motivo da rejeição
+ * registrado pelo {@link tech.devinhouse.labsky.exceptions.Handler} na requisição ({@code nenhum} quando a
+ * requisição não foi rejeitada).
+ */
+@Configuration
+public class MetricasConfig {
+
+    public static final String ATRIBUTO_MOTIVO = MetricasConfig.class.getName() + ".motivo";
+
+    @Bean
+    public ServerRequestObservationConvention convencaoRequisicoes() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object motivo = context.getCarrier().getAttribute(ATRIBUTO_MOTIVO);
+                return super.getLowCardinalityKeyValues(context).and("motivo", motivo == null ? "nenhum" : motivo.toString());
+            }
+        };
+    }
+
+}
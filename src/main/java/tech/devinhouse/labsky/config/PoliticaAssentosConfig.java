@@ -0,0 +1,71 @@
+package tech.devinhouse.labsky.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.devinhouse.labsky.enums.ClasseAssento;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.services.PoliticaAssentos;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monta a {@link PoliticaAssentos} com as restrições de cada classe de assento em
+ * {@code labsky.assentos.emergencia.*}, {@code labsky.assentos.dianteira.*} e {@code labsky.assentos.padrao.*}, e a
+ * quantidade de fileiras dianteiras em {@code labsky.assentos.dianteira.fileiras}. As classificações são separadas
+ * por vírgula; vazio permite todas.
+ * <p>
+ * As aeronaves com outra quantidade de fileiras dianteiras são configuradas em
+ * {@code labsky.assentos.dianteira.fileiras-por-aeronave}, como pares aeronave:fileiras separados por vírgula, por
+ * exemplo {@code 30xABCDEF:3,12xABCD:1} ({@link PoliticaAssentos#aeronave}).
+ */
+@Configuration
+public class PoliticaAssentosConfig {
+
+    @Bean
+    public PoliticaAssentos politicaAssentos(@Value("${labsky.assentos.dianteira.fileiras:0}") int fileirasDianteiras,
+                                             @Value("${labsky.assentos.dianteira.fileiras-por-aeronave:}") String fileirasDianteirasPorAeronave,
+                                             @Value("${labsky.assentos.emergencia.idade-minima:18}") int idadeEmergencia,
+                                             @Value("${labsky.assentos.emergencia.malas-despachadas:true}") boolean malasEmergencia,
+                                             @Value("${labsky.assentos.emergencia.classificacoes:}") String classificacoesEmergencia,
+                                             @Value("${labsky.assentos.dianteira.idade-minima:0}") int idadeDianteira,
+                                             @Value("${labsky.assentos.dianteira.malas-despachadas:false}") boolean malasDianteira,
+                                             @Value("${labsky.assentos.dianteira.classificacoes:}") String classificacoesDianteira,
+                                             @Value("${labsky.assentos.padrao.idade-minima:0}") int idadePadrao,
+                                             @Value("${labsky.assentos.padrao.malas-despachadas:false}") boolean malasPadrao,
+                                             @Value("${labsky.assentos.padrao.classificacoes:}") String classificacoesPadrao) {
+        return new PoliticaAssentos(fileirasDianteiras, fileirasPorAeronave(fileirasDianteirasPorAeronave), Map.of(
+                ClasseAssento.EMERGENCIA, new PoliticaAssentos.Restricao(idadeEmergencia, malasEmergencia, classificacoes(classificacoesEmergencia)),
+                ClasseAssento.DIANTEIRA, new PoliticaAssentos.Restricao(idadeDianteira, malasDianteira, classificacoes(classificacoesDianteira)),
+                ClasseAssento.PADRAO, new PoliticaAssentos.Restricao(idadePadrao, malasPadrao, classificacoes(classificacoesPadrao))));
+    }
+
+    private static Map<String, Integer> fileirasPorAeronave(String valor) {
+        Map<String, Integer> fileiras = new HashMap<>();
+        for (String item : valor.split(",")) {
+            if (!item.isBlank()) {
+                String[] partes = item.split(":");
+                String[] aeronave = partes[0].trim().split("[xX]", 2);
+                fileiras.put(PoliticaAssentos.aeronave(Integer.parseInt(aeronave[0]), aeronave[1]), Integer.parseInt(partes[1].trim()));
+            }
+        }
+        return fileiras;
+    }
+
+    private static Set<Classificacao> classificacoes(String valor) {
+        if (valor.isBlank()) {
+            return EnumSet.allOf(Classificacao.class);
+        }
+        Set<Classificacao> classificacoes = EnumSet.noneOf(Classificacao.class);
+        for (String classificacao : valor.split(",")) {
+            if (!classificacao.isBlank()) {
+                classificacoes.add(Classificacao.valueOf(classificacao.trim().toUpperCase()));
+            }
+        }
+        return classificacoes;
+    }
+
+}
@@ -0,0 +1,56 @@
+package tech.devinhouse.labsky.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Configuração da implementação reativa da API, ativada com o perfil {@code reativo}.
+ * <p>
+ * As requisições são atendidas pelo Netty, com um número fixo de threads de event loop, e os passageiros são
+ * acessados pelo R2DBC no mesmo banco H2 em memória do JPA, que continua criando as tabelas e carregando os
+ * dados iniciais. O pool de conexões R2DBC não é publicado como bean para que a inicialização do banco
+ * ({@code data.sql}) continue sendo feita pelo JDBC.
+ */
+@Configuration
+@Profile("reativo")
+public class ReativoConfig {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public NettyReactiveWebServerFactory servidorReativo() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClientReativo(@Value("${labsky.reativo.r2dbc.url}") String url,
+                                                @Value("${labsky.reativo.r2dbc.usuario:sa}") String usuario,
+                                                @Value("${labsky.reativo.r2dbc.senha:}") String senha,
+                                                @Value("${labsky.reativo.r2dbc.conexoes:20}") int conexoes) {
+        ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, usuario)
+                .option(ConnectionFactoryOptions.PASSWORD, senha)
+                .build();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+                .maxSize(conexoes)
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @PreDestroy
+    public void encerra() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package tech.devinhouse.labsky.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serializadores JSON das respostas mais frequentes da API, registrados no {@code ObjectMapper} do Spring.
+ * <p>
+ * Geram o mesmo JSON da serialização por reflexão do Jackson, com os mesmos campos, a mesma ordem e os formatos
+ * de data dos {@code @JsonFormat}, mas escrevem os campos diretamente, com os nomes já codificados
+ * ({@link SerializedString}) e sem consultar as anotações a cada resposta. As datas de nascimento formatadas são
+ * guardadas e reaproveitadas, assim como os nomes das classificações.
+ */
+@JsonComponent
+public class SerializadoresJson {
+
+    private static final SerializedString CPF = new SerializedString("cpf");
+    private static final SerializedString NOME = new SerializedString("nome");
+    private static final SerializedString DATA_NASCIMENTO = new SerializedString("dataNascimento");
+    private static final SerializedString CLASSIFICACAO = new SerializedString("classificacao");
+    private static final SerializedString MILHAS = new SerializedString("milhas");
+    private static final SerializedString CODIGO_VOO = new SerializedString("codigoVoo");
+    private static final SerializedString CONFIRMACAO = new SerializedString("confirmacao");
+    private static final SerializedString ETICKET = new SerializedString("eticket");
+    private static final SerializedString ASSENTO = new SerializedString("assento");
+    private static final SerializedString DATA_HORA_CONFIRMACAO = new SerializedString("dataHoraConfirmacao");
+    private static final SerializedString MALAS_DESPACHADAS = new SerializedString("malasDespachadas");
+
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final SerializedString[] CLASSIFICACOES = geraClassificacoes();
+
+    // datas de nascimento de 1900 a 2099, formatadas na primeira vez em que aparecem
+    private static final long PRIMEIRO_DIA = LocalDate.of(1900, 1, 1).toEpochDay();
+    private static final SerializedString[] DATAS = new SerializedString[(int) (LocalDate.of(2100, 1, 1).toEpochDay() - PRIMEIRO_DIA)];
+
+    public static class ConsultaCpf extends JsonSerializer<ConsultaCPFResponse> {
+
+        @Override
+        public void serialize(ConsultaCPFResponse consulta, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(consulta);
+            escreveTexto(gerador, CPF, consulta.cpf());
+            escreveTexto(gerador, NOME, consulta.nome());
+            escreveData(gerador, consulta.dataNascimento());
+            escreveClassificacao(gerador, consulta.classificacao());
+            escreveNumero(gerador, MILHAS, consulta.milhas());
+            gerador.writeEndObject();
+        }
+
+    }
+
+    public static class ConfirmacaoResposta extends JsonSerializer<ConfirmacaoResponse> {
+
+        @Override
+        public void serialize(ConfirmacaoResponse confirmacao, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(confirmacao);
+            escreveTexto(gerador, ETICKET, confirmacao.eticket());
+            gerador.writeFieldName(DATA_HORA_CONFIRMACAO);
+            if (confirmacao.dataHoraConfirmacao() == null) {
+                gerador.writeNull();
+            } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                // sem @JsonFormat o campo segue a configuração do ObjectMapper, como na serialização por reflexão
+                provider.defaultSerializeValue(confirmacao.dataHoraConfirmacao(), gerador);
+            } else {
+                gerador.writeString(confirmacao.dataHoraConfirmacao().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            }
+            gerador.writeEndObject();
+        }
+
+    }
+
+    public static class PassageiroResposta extends JsonSerializer<PassageiroResponse> {
+
+        @Override
+        public void serialize(PassageiroResponse passageiro, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(passageiro);
+            escrevePassageiro(gerador, passageiro.cpf(), passageiro.nome(), passageiro.dataNascimento(), passageiro.classificacao(),
+                    passageiro.milhas(), passageiro.codigoVoo(), passageiro.confirmacao());
+            gerador.writeEndObject();
+        }
+
+    }
+
+    public static class PassageiroEntidade extends JsonSerializer<Passageiro> {
+
+        @Override
+        public void serialize(Passageiro passageiro, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(passageiro);
+            escrevePassageiro(gerador, passageiro.getCpf(), passageiro.getNome(), passageiro.getDataNascimento(), passageiro.getClassificacao(),
+                    passageiro.getMilhas(), passageiro.getCodigoVoo(), passageiro.getConfirmacao());
+            gerador.writeEndObject();
+        }
+
+    }
+
+    private static void escrevePassageiro(JsonGenerator gerador, String cpf, String nome, LocalDate dataNascimento, Classificacao classificacao,
+                                          Integer milhas, String codigoVoo, Confirmacao confirmacao) throws IOException {
+        escreveTexto(gerador, CPF, cpf);
+        escreveTexto(gerador, NOME, nome);
+        escreveData(gerador, dataNascimento);
+        escreveClassificacao(gerador, classificacao);
+        escreveNumero(gerador, MILHAS, milhas);
+        escreveTexto(gerador, CODIGO_VOO, codigoVoo);
+        gerador.writeFieldName(CONFIRMACAO);
+        if (confirmacao == null) {
+            gerador.writeNull();
+            return;
+        }
+        gerador.writeStartObject(confirmacao);
+        escreveTexto(gerador, ETICKET, confirmacao.getEticket());
+        escreveTexto(gerador, ASSENTO, confirmacao.getAssento());
+        escreveTexto(gerador, DATA_HORA_CONFIRMACAO, formata(confirmacao.getDataHoraConfirmacao()));
+        gerador.writeFieldName(MALAS_DESPACHADAS);
+        if (confirmacao.getMalasDespachadas() == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeBoolean(confirmacao.getMalasDespachadas());
+        }
+        gerador.writeEndObject();
+    }
+
+    private static void escreveTexto(JsonGenerator gerador, SerializableString campo, String valor) throws IOException {
+        gerador.writeFieldName(campo);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeString(valor);
+        }
+    }
+
+    private static void escreveNumero(JsonGenerator gerador, SerializableString campo, Integer valor) throws IOException {
+        gerador.writeFieldName(campo);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(valor);
+        }
+    }
+
+    private static void escreveClassificacao(JsonGenerator gerador, Classificacao classificacao) throws IOException {
+        gerador.writeFieldName(CLASSIFICACAO);
+        if (classificacao == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeString(CLASSIFICACOES[classificacao.ordinal()]);
+        }
+    }
+
+    private static void escreveData(JsonGenerator gerador, LocalDate data) throws IOException {
+        gerador.writeFieldName(DATA_NASCIMENTO);
+        if (data == null) {
+            gerador.writeNull();
+            return;
+        }
+        long indice = data.toEpochDay() - PRIMEIRO_DIA;
+        if (indice < 0 || indice >= DATAS.length) {
+            gerador.writeString(formata(data));
+            return;
+        }
+        SerializedString formatada = DATAS[(int) indice];
+        if (formatada == null) {
+            // a corrida entre threads apenas formata a mesma data mais de uma vez
+            formatada = new SerializedString(formata(data));
+            DATAS[(int) indice] = formatada;
+        }
+        gerador.writeString(formatada);
+    }
+
+    /**
+     * Formata a data no padrão dd/MM/yyyy, o mesmo do {@code @JsonFormat} das datas de nascimento.
+     */
+    static String formata(LocalDate data) {
+        char[] texto = new char[10];
+        doisDigitos(texto, 0, data.getDayOfMonth());
+        texto[2] = '/';
+        doisDigitos(texto, 3, data.getMonthValue());
+        texto[5] = '/';
+        int ano = data.getYear();
+        if (ano < 0 || ano > 9999) {
+            return data.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        }
+        doisDigitos(texto, 6, ano / 100);
+        doisDigitos(texto, 8, ano % 100);
+        return new String(texto);
+    }
+
+    private static String formata(LocalDateTime dataHora) {
+        return dataHora == null ? null : FORMATO_DATA_HORA.format(dataHora);
+    }
+
+    private static void doisDigitos(char[] texto, int posicao, int valor) {
+        texto[posicao] = (char) ('0' + valor / 10);
+        texto[posicao + 1] = (char) ('0' + valor % 10);
+    }
+
+    private static SerializedString[] geraClassificacoes() {
+        Classificacao[] classificacoes = Classificacao.values();
+        SerializedString[] nomes = new SerializedString[classificacoes.length];
+        for (Classificacao classificacao : classificacoes) {
+            nomes[classificacao.ordinal()] = new SerializedString(classificacao.name());
+        }
+        return nomes;
+    }
+
+}
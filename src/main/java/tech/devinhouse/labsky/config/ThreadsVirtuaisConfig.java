@@ -0,0 +1,35 @@
+package tech.devinhouse.labsky.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de execução com threads virtuais, ativado com {@code labsky.execucao.modo=virtual}.
+ * <p>
+ * As requisições do Tomcat e as tarefas assíncronas da aplicação (como as respostas em fluxo do Spring MVC)
+ * passam a ser executadas em threads virtuais, que liberam a thread do sistema operacional enquanto aguardam
+ * o banco de dados. No modo padrão ({@code plataforma}) é mantido o pool de threads do Tomcat.
+ */
+@Configuration
+@ConditionalOnProperty(name = "labsky.execucao.modo", havingValue = "virtual")
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> executorTomcatThreadsVirtuais() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+}
@@ -0,0 +1,49 @@
+package tech.devinhouse.labsky.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Execução de treino usada pelo perfil Maven {@code inicializacao-rapida} para gerar o arquivo de CDS
+ * (class-data sharing) da aplicação.
+ * <p>
+ * Com {@code labsky.inicializacao.treino=true}, depois que a aplicação termina de iniciar é feita uma consulta
+ * {@code GET /api/passageiros/{cpf}}, para que as classes usadas pela primeira requisição também entrem no
+ * arquivo, e a aplicação é encerrada. A configuração não é condicional porque, com o processamento AOT, as
+ * condições dos beans são avaliadas no build e não na execução.
+ */
+@Slf4j
+@Configuration
+public class TreinoInicializacaoConfig {
+
+    @Value("${labsky.inicializacao.treino:false}")
+    private boolean treino;
+
+    @Value("${labsky.inicializacao.cpf-treino:000.000.000-00}")
+    private String cpf;
+
+    @EventListener
+    public void treina(ApplicationReadyEvent evento) throws IOException, InterruptedException {
+        if (!treino) {
+            return;
+        }
+        ConfigurableApplicationContext contexto = evento.getApplicationContext();
+        String porta = contexto.getEnvironment().getProperty("local.server.port");
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/passageiros/" + cpf)).GET().build();
+        int status = HttpClient.newHttpClient().send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+        log.info("Execução de treino concluída: GET /api/passageiros/{} retornou {}, encerrando a aplicação", cpf, status);
+        System.exit(SpringApplication.exit(contexto));
+    }
+
+}
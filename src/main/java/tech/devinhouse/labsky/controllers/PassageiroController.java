@@ -1,52 +1,185 @@
 package tech.devinhouse.labsky.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import tech.devinhouse.labsky.models.Passageiro;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.FormatoManifesto;
+import tech.devinhouse.labsky.models.LancamentoMilhas;
+import tech.devinhouse.labsky.records.request.AtribuicaoAssentosRequest;
+import tech.devinhouse.labsky.records.request.ConfirmacaoLoteRequest;
 import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.ConfirmacaoLoteResponse;
 import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
 import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.ImportacaoResponse;
+import tech.devinhouse.labsky.records.response.PaginaPassageirosResponse;
+import tech.devinhouse.labsky.records.response.PainelAssentosResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
 import tech.devinhouse.labsky.services.PassageiroService;
+import tech.devinhouse.labsky.services.TransmissaoCheckin;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
+@Profile("!reativo")
 public class PassageiroController {
 
     @Autowired
     private PassageiroService service;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${labsky.transmissao.tempo-limite:30m}")
+    private Duration tempoLimiteTransmissao;
+
     @GetMapping("/passageiros")
-    public ResponseEntity<List<Passageiro>> listaPassageiros() {
+    public ResponseEntity<List<PassageiroResponse>> listaPassageiros() {
         return ResponseEntity.ok(service.listaPassageiros());
     }
 
+    @GetMapping("/passageiros/pagina")
+    public ResponseEntity<PaginaPassageirosResponse> listaPassageirosPaginados(@RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "50") int limite,
+                                                                               @RequestParam(required = false) Classificacao classificacao,
+                                                                               @RequestParam(required = false) Boolean checkin) {
+        return ResponseEntity.ok(service.listaPassageirosPaginados(cursor, limite, classificacao, checkin));
+    }
+
+    @GetMapping(value = "/passageiros/fluxo", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> transmitePassageiros(@RequestParam(required = false) Classificacao classificacao,
+                                                                      @RequestParam(required = false) Boolean checkin) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody corpo = saida -> service.transmitePassageiros(classificacao, checkin, passageiro -> {
+            try {
+                saida.write(writer.writeValueAsBytes(passageiro));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
     @GetMapping({"/passageiros/{cpf}"})
     public ResponseEntity<ConsultaCPFResponse> listaPassageiroPeloCpf(@PathVariable String cpf) {
         return ResponseEntity.ok(service.listaPassageiroPeloCpf(cpf));
     }
 
-    @GetMapping("/assentos")
-    public ResponseEntity<List<String>> listaAssentos() {
-        return ResponseEntity.ok(List.of(
-                "1A", "1B", "1C", "1D", "1E", "1F",
-                "2A", "2B", "2C", "2D", "2E", "2F",
-                "3A", "3B", "3C", "3D", "3E", "3F",
-                "4A", "4B", "4C", "4D", "4E", "4F",
-                "5A", "5B", "5C", "5D", "5E", "5F",
-                "6A", "6B", "6C", "6D", "6E", "6F",
-                "7A", "7B", "7C", "7D", "7E", "7F",
-                "8A", "8B", "8C", "8D", "8E", "8F",
-                "9A", "9B", "9C", "9D", "9E", "9F",
-                "10A", "10B", "10C", "10D", "10E", "10F"));
+    @GetMapping("/passageiros/{cpf}/milhas")
+    public ResponseEntity<List<LancamentoMilhas>> listaLancamentosMilhas(@PathVariable String cpf) {
+        return ResponseEntity.ok(service.listaLancamentosMilhas(cpf));
+    }
+
+    /**
+     * Situação dos assentos do voo (ou do voo padrão, em {@code /assentos}) já serializada. Se o
+     * {@code If-None-Match} da requisição corresponder ao {@code ETag} do mapa atual, a resposta é
+     * {@code 304 Not Modified} sem corpo.
+     */
+    @GetMapping(value = {"/assentos", "/voos/{codigo}/assentos"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> listaAssentos(@PathVariable(required = false) String codigo) {
+        PainelAssentosResponse painel = service.consultaAssentos(codigo);
+        return ResponseEntity.ok()
+                .eTag(painel.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(painel.corpo());
+    }
+
+    /**
+     * Importa um manifesto de passageiros em CSV ({@code text/csv}) ou JSONL ({@code application/x-ndjson}). O corpo
+     * é lido à medida que chega, sem ser carregado inteiro em memória.
+     */
+    @PostMapping(value = "/passageiros/importacao", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportacaoResponse> importaManifesto(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo, InputStream manifesto) throws IOException {
+        FormatoManifesto formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(tipo) ? FormatoManifesto.JSONL : FormatoManifesto.CSV;
+        return ResponseEntity.ok(service.importaManifesto(manifesto, formato));
+    }
+
+    /**
+     * Eventos de check-in para os painéis de embarque ({@code text/event-stream}), opcionalmente de um único voo. O
+     * cliente que reconecta com o cabeçalho {@code Last-Event-ID} recebe os eventos perdidos; se eles já não estiverem
+     * no histórico, recebe o evento {@code lacuna} e deve recarregar a lista de passageiros.
+     */
+    @GetMapping(value = "/passageiros/confirmacao/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter transmiteConfirmacoes(@RequestParam(required = false) String voo,
+                                            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoIdRecebido) {
+        SseEmitter emitter = new SseEmitter(tempoLimiteTransmissao.toMillis());
+        TransmissaoCheckin.Assinatura assinatura = service.assinaConfirmacoes(ultimoIdRecebido, voo, new DestinoSse(emitter));
+        emitter.onCompletion(assinatura::cancela);
+        emitter.onTimeout(assinatura::cancela);
+        emitter.onError(erro -> assinatura.cancela());
+        return emitter;
     }
 
     @PostMapping("/passageiros/confirmacao")
-    public ResponseEntity<ConfirmacaoResponse> confirmacao(@RequestBody @Validated ConfirmacaoRequest request) {
-        return ResponseEntity.ok(service.confirmacao(request));
+    public ResponseEntity<ConfirmacaoResponse> confirmacao(@RequestBody @Validated ConfirmacaoRequest request,
+                                                           @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        if (chaveIdempotencia == null || chaveIdempotencia.isBlank()) {
+            return ResponseEntity.ok(service.confirmacao(request));
+        }
+        return ResponseEntity.ok(service.confirmacao(request, chaveIdempotencia));
+    }
+
+    @PostMapping("/passageiros/confirmacao/lote")
+    public ResponseEntity<List<ConfirmacaoLoteResponse>> confirmacaoLote(@RequestBody @Validated ConfirmacaoLoteRequest request) {
+        return ResponseEntity.ok(service.confirmacaoLote(request.confirmacoes()));
+    }
+
+    /**
+     * Check-in de um ou mais passageiros do mesmo voo, com os assentos atribuídos pelo servidor: o melhor assento
+     * livre ou, para grupos, assentos adjacentes na mesma fileira.
+     */
+    @PostMapping("/passageiros/confirmacao/automatica")
+    public ResponseEntity<List<ConfirmacaoLoteResponse>> confirmacaoAutomatica(@RequestBody @Validated AtribuicaoAssentosRequest request) {
+        return ResponseEntity.ok(service.confirmacaoAutomatica(request));
+    }
+
+    /**
+     * Envia os eventos da {@link TransmissaoCheckin} pela conexão SSE, com o identificador de cada evento para o
+     * {@code Last-Event-ID} da reconexão.
+     */
+    private record DestinoSse(SseEmitter emitter) implements TransmissaoCheckin.Destino {
+
+        @Override
+        public void envia(List<TransmissaoCheckin.Evento> eventos, boolean lacuna) throws IOException {
+            if (lacuna) {
+                emitter.send(SseEmitter.event().name("lacuna").data(""));
+            }
+            for (TransmissaoCheckin.Evento evento : eventos) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(evento.id()))
+                        .name("confirmacao")
+                        .data(evento.json(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void pulso() throws IOException {
+            emitter.send(SseEmitter.event().comment("pulso"));
+        }
+
+        @Override
+        public void encerra() {
+            emitter.complete();
+        }
+
     }
 
 }
@@ -0,0 +1,65 @@
+package tech.devinhouse.labsky.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
+import tech.devinhouse.labsky.services.PassageiroServiceReativo;
+
+/**
+ * Endpoints de listagem, consulta pelo CPF, assentos, check-in e eventos de check-in da implementação reativa (perfil {@code reativo}),
+ * com os mesmos caminhos e respostas do {@link PassageiroController}.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile("reativo")
+public class PassageiroControllerReativo {
+
+    @Autowired
+    private PassageiroServiceReativo service;
+
+    @GetMapping("/passageiros")
+    public Flux<PassageiroResponse> listaPassageiros() {
+        return service.listaPassageiros();
+    }
+
+    @GetMapping("/passageiros/{cpf}")
+    public Mono<ConsultaCPFResponse> listaPassageiroPeloCpf(@PathVariable String cpf) {
+        return service.listaPassageiroPeloCpf(cpf);
+    }
+
+    @GetMapping(value = {"/assentos", "/voos/{codigo}/assentos"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> listaAssentos(@PathVariable(required = false) String codigo) {
+        return service.consultaAssentos(codigo).map(painel -> ResponseEntity.ok()
+                .eTag(painel.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(painel.corpo()));
+    }
+
+    @GetMapping(value = "/passageiros/confirmacao/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> transmiteConfirmacoes(@RequestParam(required = false) String voo,
+                                                               @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoIdRecebido) {
+        return service.transmiteConfirmacoes(ultimoIdRecebido, voo);
+    }
+
+    @PostMapping("/passageiros/confirmacao")
+    public Mono<ConfirmacaoResponse> confirmacao(@RequestBody @Validated ConfirmacaoRequest request,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        if (chaveIdempotencia == null || chaveIdempotencia.isBlank()) {
+            return service.confirmacao(request);
+        }
+        return service.confirmacao(request, chaveIdempotencia);
+    }
+
+}
@@ -0,0 +1,22 @@
+package tech.devinhouse.labsky.enums;
+
+/**
+ * Classes de assento da aeronave, cada uma com as suas restrições na {@code PoliticaAssentos}.
+ */
+public enum ClasseAssento {
+    EMERGENCIA,
+    DIANTEIRA,
+    PADRAO;
+
+    /**
+     * Máscara com o bit de todas as classes.
+     */
+    public static final int TODAS = (1 << values().length) - 1;
+
+    /**
+     * Bit da classe nas máscaras de classes permitidas.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
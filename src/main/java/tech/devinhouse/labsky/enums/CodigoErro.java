@@ -0,0 +1,45 @@
+package tech.devinhouse.labsky.enums;
+
+/**
+ * Erros de negócio da API, com o status HTTP, a mensagem enviada no response e o motivo usado nas métricas.
+ */
+public enum CodigoErro {
+    CPF_INVALIDO(400, "O CPF informado é inválido!", "cpf_invalido"),
+    PASSAGEIRO_NAO_ENCONTRADO(404, "Passageiro não encontrado no banco de dados!", "passageiro_nao_encontrado"),
+    ASSENTO_NAO_ENCONTRADO(404, "Assento não encontrado no banco de dados!", "assento_nao_encontrado"),
+    VOO_NAO_ENCONTRADO(404, "Voo não encontrado no banco de dados!", "voo_nao_encontrado"),
+    ASSENTO_OCUPADO(409, "O assento já está ocupado por outro passageiro!", "assento_ocupado"),
+    ASSENTOS_INDISPONIVEIS(409, "Não há assentos livres e adjacentes para todos os passageiros!", "assentos_indisponiveis"),
+    CHECKIN_ALTERADO(409, "O check-in do passageiro foi alterado por outra requisição!", "conflito"),
+    CHECKIN_DUPLICADO(400, "O passageiro já realizou check-in!", "checkin_duplicado"),
+    VOOS_DIFERENTES(400, "Os passageiros do grupo devem estar no mesmo voo!", "voos_diferentes"),
+    MENOR_IDADE_EMERGENCIA(400, "O passageiro é menor de idade e não pode sentar nas fileiras de emergência!", "menor_idade"),
+    MALAS_EMERGENCIA(400, "O passageiro deve obrigatoriamente despachar suas malas nas fileiras de emergência!", "malas_emergencia"),
+    IDADE_MINIMA_ASSENTO(400, "O passageiro não tem a idade mínima para sentar no assento escolhido!", "idade_minima"),
+    MALAS_ASSENTO(400, "O passageiro deve obrigatoriamente despachar suas malas para sentar no assento escolhido!", "malas_assento"),
+    CLASSIFICACAO_ASSENTO(400, "A classificação do passageiro não permite sentar no assento escolhido!", "classificacao_assento"),
+    ERRO_INTERNO(500, "Não foi possível realizar o check-in, tente novamente!", "erro_interno"),
+    SERVICO_SOBRECARREGADO(503, "O serviço está sobrecarregado, tente novamente em instantes!", "sobrecarga");
+
+    private final int status;
+    private final String mensagem;
+    private final String motivo;
+
+    CodigoErro(int status, String mensagem, String motivo) {
+        this.status = status;
+        this.mensagem = mensagem;
+        this.motivo = motivo;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+}
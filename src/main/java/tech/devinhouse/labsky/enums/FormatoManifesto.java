@@ -0,0 +1,29 @@
+package tech.devinhouse.labsky.enums;
+
+/**
+ * Formato do arquivo de manifesto de passageiros.
+ */
+public enum FormatoManifesto {
+    /**
+     * CSV com cabeçalho, contendo as colunas cpf, nome, dataNascimento, classificacao, milhas e codigoVoo em
+     * qualquer ordem. Campos com vírgula devem estar entre aspas duplas.
+     */
+    CSV,
+    /**
+     * Um passageiro em JSON por linha, com os mesmos campos do response da listagem de passageiros.
+     */
+    JSONL;
+
+    /**
+     * Identifica o formato pela extensão do arquivo (.csv, .jsonl ou .ndjson).
+     */
+    public static FormatoManifesto pelaExtensao(String arquivo) {
+        String nome = arquivo.toLowerCase();
+        if (nome.endsWith(".csv")) {
+            return CSV;
+        } else if (nome.endsWith(".jsonl") || nome.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Formato de manifesto não suportado: " + arquivo);
+    }
+}
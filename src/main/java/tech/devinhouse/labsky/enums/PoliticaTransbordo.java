@@ -0,0 +1,19 @@
+package tech.devinhouse.labsky.enums;
+
+/**
+ * O que fazer com um novo evento quando a fila de eventos estiver cheia.
+ */
+public enum PoliticaTransbordo {
+    /**
+     * Descarta o novo evento.
+     */
+    DESCARTAR,
+    /**
+     * Bloqueia quem publica o evento até haver espaço na fila.
+     */
+    BLOQUEAR,
+    /**
+     * A partir de 3/4 da capacidade da fila, aceita apenas um a cada N eventos; com a fila cheia, descarta.
+     */
+    AMOSTRAR
+}
@@ -0,0 +1,40 @@
+package tech.devinhouse.labsky.exceptions;
+
+import tech.devinhouse.labsky.enums.CodigoErro;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Erro de negócio identificado por um {@link CodigoErro}.
+ * <p>
+ * A exceção não registra a pilha de chamadas nem exceções suprimidas e não tem causa, portanto é imutável:
+ * existe uma única instância por código, obtida com {@link #de(CodigoErro)}, e rejeitar uma requisição não
+ * custa nenhuma alocação.
+ */
+public final class DominioException extends RuntimeException {
+
+    private static final Map<CodigoErro, DominioException> INSTANCIAS = new EnumMap<>(CodigoErro.class);
+
+    static {
+        for (CodigoErro codigo : CodigoErro.values()) {
+            INSTANCIAS.put(codigo, new DominioException(codigo));
+        }
+    }
+
+    private final CodigoErro codigo;
+
+    private DominioException(CodigoErro codigo) {
+        super(codigo.getMensagem(), null, false, false);
+        this.codigo = codigo;
+    }
+
+    public static DominioException de(CodigoErro codigo) {
+        return INSTANCIAS.get(codigo);
+    }
+
+    public CodigoErro getCodigo() {
+        return codigo;
+    }
+
+}
@@ -2,52 +2,90 @@ package tech.devinhouse.labsky.exceptions;
 
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import tech.devinhouse.labsky.config.MetricasConfig;
+import tech.devinhouse.labsky.enums.CodigoErro;
 import tech.devinhouse.labsky.records.response.Exceptions;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @RestControllerAdvice
 public class Handler {
 
+    private static final Map<CodigoErro, ResponseEntity<String>> RESPOSTAS = new EnumMap<>(CodigoErro.class);
+
+    static {
+        for (CodigoErro codigo : CodigoErro.values()) {
+            RESPOSTAS.put(codigo, ResponseEntity.status(codigo.getStatus()).body(codigo.getMensagem()));
+        }
+    }
+
+    @ExceptionHandler(DominioException.class)
+    public ResponseEntity<String> trataErroDominio(DominioException exception) {
+        return resposta(exception.getCodigo());
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<String> trataErro404NotFound(EntityNotFoundException exception) {
-        if (exception.getMessage().contains("Passageiro")) {
-            return ResponseEntity.status(404).body("Passageiro não encontrado no banco de dados!");
-        } else if (exception.getMessage().contains("Assento")) {
-            return ResponseEntity.status(404).body("Assento não encontrado no banco de dados!");
-        }
         return ResponseEntity.notFound().build();
     }
 
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> trataErro400BadRequest(RuntimeException exception) {
-        if (exception.getMessage().contains("idade")) {
-            return ResponseEntity.status(400).body("O passageiro é menor de idade e não pode sentar nas fileiras de emergência!");
-        } else if (exception.getMessage().contains("malas")) {
-            return ResponseEntity.status(400).body("O passageiro deve obrigatoriamente despachar suas malas nas fileiras de emergência!");
-        } else if (exception.getMessage().contains("check-in")) {
-            return ResponseEntity.status(400).body("O passageiro já realizou check-in!");
-        }
         return ResponseEntity.badRequest().build();
     }
 
     @ExceptionHandler(EntityExistsException.class)
     public ResponseEntity<String> trataErro404Conflict(EntityExistsException exception) {
-        if (exception.getMessage().contains("ocupado")) {
-            return ResponseEntity.status(409).body("O assento já está ocupado por outro passageiro!");
-        }
-        return ResponseEntity.badRequest().build();
+        return ResponseEntity.status(409).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> trataErro409Restricao(DataIntegrityViolationException exception) {
+        return resposta(CodigoErro.ASSENTO_OCUPADO);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> trataErro409Concorrencia(OptimisticLockingFailureException exception) {
+        return resposta(CodigoErro.CHECKIN_ALTERADO);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<Exceptions>> trataErro400Constraints(MethodArgumentNotValidException exception) {
-        List<FieldError> erros = exception.getFieldErrors();
+        return respostaValidacao(exception.getFieldErrors());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<List<Exceptions>> trataErro400ConstraintsReativo(WebExchangeBindException exception) {
+        return respostaValidacao(exception.getFieldErrors());
+    }
+
+    private static ResponseEntity<List<Exceptions>> respostaValidacao(List<FieldError> erros) {
+        registraMotivo("validacao");
         return ResponseEntity.badRequest().body(erros.stream().map(Exceptions::new).toList());
     }
 
+    private static ResponseEntity<String> resposta(CodigoErro codigo) {
+        registraMotivo(codigo.getMotivo());
+        return RESPOSTAS.get(codigo);
+    }
+
+    private static void registraMotivo(String motivo) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(MetricasConfig.ATRIBUTO_MOTIVO, motivo, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
 }
@@ -0,0 +1,36 @@
+package tech.devinhouse.labsky.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "lancamentos_milhas", indexes = @Index(name = "idx_lancamentos_milhas_cpf", columnList = "cpf"))
+public class LancamentoMilhas {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamentos_milhas_seq")
+    @SequenceGenerator(name = "lancamentos_milhas_seq", allocationSize = 50)
+    private Long id;
+    @Column(nullable = false, updatable = false)
+    private String cpf;
+    @Column(nullable = false, updatable = false)
+    private Integer milhas;
+    @Column(updatable = false)
+    private String eticket;
+    @Column(name = "data_hora", nullable = false, updatable = false)
+    private LocalDateTime dataHora;
+
+    public LancamentoMilhas(String cpf, Integer milhas, String eticket, LocalDateTime dataHora) {
+        this.cpf = cpf;
+        this.milhas = milhas;
+        this.eticket = eticket;
+        this.dataHora = dataHora;
+    }
+
+}
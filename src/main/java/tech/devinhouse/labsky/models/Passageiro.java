@@ -1,10 +1,13 @@
 package tech.devinhouse.labsky.models;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import tech.devinhouse.labsky.enums.Classificacao;
 
 import java.time.LocalDate;
@@ -13,7 +16,10 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "passageiros")
+@Table(name = "passageiros", uniqueConstraints = {
+        // o índice da restrição atende às consultas de assentos por voo
+        @UniqueConstraint(name = "uk_passageiros_voo_assento", columnNames = {"voo_codigo", "assento"})
+})
 public class Passageiro {
     @Id
     @Column(unique = true)
@@ -25,8 +31,20 @@ public class Passageiro {
     @Enumerated(EnumType.STRING)
     private Classificacao classificacao = Classificacao.ASSOCIADO;
     private Integer milhas;
+    @Column(name = "voo_codigo")
+    private String codigoVoo;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "voo_codigo", insertable = false, updatable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Voo voo;
     @Embedded
     private Confirmacao confirmacao;
+    @Version
+    @JsonIgnore
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long versao;
 
     public Passageiro(String cpf, String nome) {
         this.cpf = cpf;
@@ -41,4 +59,9 @@ public class Passageiro {
         this.milhas = milhas;
     }
 
+    public Passageiro(String cpf, String nome, LocalDate dataNascimento, Classificacao classificacao, Integer milhas, Confirmacao confirmacao) {
+        this(cpf, nome, dataNascimento, classificacao, milhas);
+        this.confirmacao = confirmacao;
+    }
+
 }
@@ -0,0 +1,32 @@
+package tech.devinhouse.labsky.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Voo com a configuração de assentos da aeronave: quantidade de fileiras, letras das colunas (ex.: "ABCDEF") e
+ * fileiras de emergência separadas por vírgula (ex.: "5,6").
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "voos")
+public class Voo {
+    @Id
+    private String codigo;
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm")
+    private LocalDateTime partida;
+    private Integer fileiras;
+    private String colunas;
+    @Column(name = "fileiras_emergencia")
+    private String fileirasEmergencia;
+}
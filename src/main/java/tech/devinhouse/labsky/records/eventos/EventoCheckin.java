@@ -0,0 +1,7 @@
+package tech.devinhouse.labsky.records.eventos;
+
+import java.time.LocalDateTime;
+
+public record EventoCheckin(String cpf, String eticket, String assento, LocalDateTime dataHora) {
+
+}
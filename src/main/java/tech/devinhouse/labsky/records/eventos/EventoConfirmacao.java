@@ -0,0 +1,12 @@
+package tech.devinhouse.labsky.records.eventos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de check-in transmitido aos painéis de embarque, com a versão do mapa de assentos do voo depois da
+ * ocupação do assento.
+ */
+public record EventoConfirmacao(String codigoVoo, String cpf, String nome, String assento, LocalDateTime dataHoraConfirmacao,
+                                long versaoAssentos) {
+
+}
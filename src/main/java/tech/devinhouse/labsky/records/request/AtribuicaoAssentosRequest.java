@@ -0,0 +1,18 @@
+package tech.devinhouse.labsky.records.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record AtribuicaoAssentosRequest(
+        @NotEmpty
+        @Size(max = 10)
+        List<@NotBlank String> cpfs,
+        @NotNull
+        Boolean malasDespachadas
+) {
+
+}
@@ -0,0 +1,15 @@
+package tech.devinhouse.labsky.records.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ConfirmacaoLoteRequest(
+        @NotEmpty
+        @Size(max = 200)
+        List<@Valid ConfirmacaoRequest> confirmacoes
+) {
+
+}
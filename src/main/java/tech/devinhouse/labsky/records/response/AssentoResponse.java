@@ -0,0 +1,5 @@
+package tech.devinhouse.labsky.records.response;
+
+public record AssentoResponse(String assento, boolean ocupado, boolean emergencia) {
+
+}
@@ -0,0 +1,25 @@
+package tech.devinhouse.labsky.records.response;
+
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+
+import java.time.LocalDateTime;
+
+public record ConfirmacaoLoteResponse(
+        String cpf,
+        String assento,
+        Integer status,
+        String eticket,
+        LocalDateTime dataHoraConfirmacao,
+        String erro) {
+
+    public static ConfirmacaoLoteResponse sucesso(ConfirmacaoRequest request, Confirmacao confirmacao) {
+        return new ConfirmacaoLoteResponse(request.cpf(), confirmacao.getAssento(), 200, confirmacao.getEticket(), confirmacao.getDataHoraConfirmacao(), null);
+    }
+
+    public static ConfirmacaoLoteResponse rejeicao(ConfirmacaoRequest request, CodigoErro codigo) {
+        return new ConfirmacaoLoteResponse(request.cpf(), request.assento(), codigo.getStatus(), null, null, codigo.getMensagem());
+    }
+
+}
@@ -0,0 +1,11 @@
+package tech.devinhouse.labsky.records.response;
+
+import java.util.List;
+
+/**
+ * Resultado da importação de um manifesto. A lista de linhas rejeitadas é limitada, mas {@code rejeitados}
+ * conta todas elas.
+ */
+public record ImportacaoResponse(long importados, long rejeitados, List<LinhaRejeitadaResponse> linhasRejeitadas, long duracaoMs) {
+
+}
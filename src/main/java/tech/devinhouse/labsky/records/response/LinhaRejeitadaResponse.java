@@ -0,0 +1,5 @@
+package tech.devinhouse.labsky.records.response;
+
+public record LinhaRejeitadaResponse(long linha, String cpf, String motivo) {
+
+}
@@ -0,0 +1,9 @@
+package tech.devinhouse.labsky.records.response;
+
+import tech.devinhouse.labsky.models.Passageiro;
+
+import java.util.List;
+
+public record PaginaPassageirosResponse(List<Passageiro> passageiros, String proximoCursor) {
+
+}
@@ -0,0 +1,8 @@
+package tech.devinhouse.labsky.records.response;
+
+/**
+ * Mapa de assentos já serializado em JSON, com o {@code ETag} correspondente à versão do mapa.
+ */
+public record PainelAssentosResponse(long versao, String etag, byte[] corpo) {
+
+}
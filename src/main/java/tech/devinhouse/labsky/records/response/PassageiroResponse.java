@@ -0,0 +1,39 @@
+package tech.devinhouse.labsky.records.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.models.Passageiro;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Passageiro da listagem, com os mesmos campos JSON da entidade {@link Passageiro}, preenchido diretamente pela
+ * consulta, sem carregar a entidade.
+ */
+public record PassageiroResponse(
+        String cpf,
+        String nome,
+        @JsonFormat(pattern = "dd/MM/yyyy")
+        LocalDate dataNascimento,
+        Classificacao classificacao,
+        Integer milhas,
+        String codigoVoo,
+        Confirmacao confirmacao) {
+
+    /**
+     * Usado pela projeção da consulta, que seleciona as colunas da confirmação separadamente.
+     */
+    public PassageiroResponse(String cpf, String nome, LocalDate dataNascimento, Classificacao classificacao, Integer milhas, String codigoVoo,
+                              String eticket, String assento, LocalDateTime dataHoraConfirmacao, Boolean malasDespachadas) {
+        this(cpf, nome, dataNascimento, classificacao, milhas, codigoVoo,
+                eticket == null ? null : new Confirmacao(eticket, assento, dataHoraConfirmacao, malasDespachadas));
+    }
+
+    public PassageiroResponse(Passageiro passageiro) {
+        this(passageiro.getCpf(), passageiro.getNome(), passageiro.getDataNascimento(), passageiro.getClassificacao(), passageiro.getMilhas(),
+                passageiro.getCodigoVoo(), passageiro.getConfirmacao());
+    }
+
+}
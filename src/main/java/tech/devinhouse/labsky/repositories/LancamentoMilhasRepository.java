@@ -0,0 +1,12 @@
+package tech.devinhouse.labsky.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tech.devinhouse.labsky.models.LancamentoMilhas;
+
+import java.util.List;
+
+@Repository
+public interface LancamentoMilhasRepository extends JpaRepository<LancamentoMilhas, Long> {
+    List<LancamentoMilhas> findByCpfOrderByDataHora(String cpf);
+}
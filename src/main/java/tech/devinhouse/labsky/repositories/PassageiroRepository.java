@@ -1,10 +1,59 @@
 package tech.devinhouse.labsky.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tech.devinhouse.labsky.enums.Classificacao;
 import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PassageiroRepository extends JpaRepository<Passageiro, String> {
-    boolean existsPassageiroByConfirmacao_Assento(String assento);
+    @Transactional(readOnly = true)
+    @Query("""
+            select new tech.devinhouse.labsky.records.response.PassageiroResponse(
+                p.cpf, p.nome, p.dataNascimento, p.classificacao, p.milhas, p.codigoVoo,
+                p.confirmacao.eticket, p.confirmacao.assento, p.confirmacao.dataHoraConfirmacao, p.confirmacao.malasDespachadas)
+            from Passageiro p
+            order by p.cpf""")
+    List<PassageiroResponse> findListagem();
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new tech.devinhouse.labsky.records.response.ConsultaCPFResponse(p.cpf, p.nome, p.dataNascimento, p.classificacao, p.milhas)
+            from Passageiro p
+            where p.cpf = :cpf""")
+    Optional<ConsultaCPFResponse> findConsulta(String cpf);
+
+    @Query("select p.confirmacao.assento from Passageiro p where p.codigoVoo = :codigoVoo and p.confirmacao.assento is not null")
+    List<String> findAssentosOcupados(String codigoVoo);
+
+    @Query("""
+            select p from Passageiro p
+            where p.cpf > :cursor
+            and (:classificacao is null or p.classificacao = :classificacao)
+            and (:checkin is null or (:checkin = true and p.confirmacao.eticket is not null) or (:checkin = false and p.confirmacao.eticket is null))
+            order by p.cpf""")
+    List<Passageiro> findPagina(String cursor, Classificacao classificacao, Boolean checkin, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select p from Passageiro p
+            where (:classificacao is null or p.classificacao = :classificacao)
+            and (:checkin is null or (:checkin = true and p.confirmacao.eticket is not null) or (:checkin = false and p.confirmacao.eticket is null))
+            order by p.cpf""")
+    Stream<Passageiro> streamAll(Classificacao classificacao, Boolean checkin);
 }
@@ -0,0 +1,9 @@
+package tech.devinhouse.labsky.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tech.devinhouse.labsky.models.Voo;
+
+@Repository
+public interface VooRepository extends JpaRepository<Voo, String> {
+}
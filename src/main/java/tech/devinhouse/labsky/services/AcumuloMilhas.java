@@ -0,0 +1,27 @@
+package tech.devinhouse.labsky.services;
+
+import tech.devinhouse.labsky.enums.Classificacao;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tabela de milhas acumuladas por check-in de acordo com a classificação do passageiro no plano de fidelidade.
+ */
+public final class AcumuloMilhas {
+
+    private static final Map<Classificacao, Integer> MILHAS_POR_CHECKIN = new EnumMap<>(Map.of(
+            Classificacao.VIP, 100,
+            Classificacao.OURO, 80,
+            Classificacao.PRATA, 50,
+            Classificacao.BRONZE, 30,
+            Classificacao.ASSOCIADO, 10));
+
+    private AcumuloMilhas() {
+    }
+
+    public static int milhasPorCheckin(Classificacao classificacao) {
+        return MILHAS_POR_CHECKIN.getOrDefault(classificacao, 0);
+    }
+
+}
@@ -0,0 +1,152 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.devinhouse.labsky.enums.PoliticaTransbordo;
+import tech.devinhouse.labsky.records.eventos.EventoCheckin;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trilha de auditoria dos check-ins.
+ * <p>
+ * Os eventos são publicados em uma fila circular de capacidade fixa e gravados em lotes por uma thread em
+ * segundo plano no logger {@code auditoria.checkin} (arquivo com rotação configurado em
+ * {@code logback-spring.xml}), sem bloquear a requisição do check-in. Quando a fila está cheia, vale a
+ * {@link PoliticaTransbordo} configurada e os eventos descartados são contados na métrica
+ * {@code auditoria.checkin.descartados}.
+ */
+@Slf4j
+@Component
+public class AuditoriaCheckin {
+
+    private static final Logger AUDITORIA = LoggerFactory.getLogger("auditoria.checkin");
+
+    private final BlockingQueue<EventoCheckin> fila;
+    private final PoliticaTransbordo politica;
+    private final int limiteAmostragem;
+    private final int taxaAmostragem;
+    private final int tamanhoLote;
+    private final AtomicLong sequenciaAmostragem = new AtomicLong();
+    private final Counter descartadosFilaCheia;
+    private final Counter descartadosAmostragem;
+
+    private volatile boolean ativa;
+    private Thread consumidor;
+
+    public AuditoriaCheckin(MeterRegistry registry,
+                            @Value("${labsky.auditoria.capacidade:8192}") int capacidade,
+                            @Value("${labsky.auditoria.politica:DESCARTAR}") PoliticaTransbordo politica,
+                            @Value("${labsky.auditoria.taxa-amostragem:10}") int taxaAmostragem,
+                            @Value("${labsky.auditoria.tamanho-lote:256}") int tamanhoLote) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.politica = politica;
+        this.limiteAmostragem = capacidade * 3 / 4;
+        this.taxaAmostragem = taxaAmostragem;
+        this.tamanhoLote = tamanhoLote;
+        this.descartadosFilaCheia = Counter.builder("auditoria.checkin.descartados").tag("motivo", "fila_cheia").register(registry);
+        this.descartadosAmostragem = Counter.builder("auditoria.checkin.descartados").tag("motivo", "amostragem").register(registry);
+        Gauge.builder("auditoria.checkin.pendentes", fila, BlockingQueue::size).register(registry);
+    }
+
+    @PostConstruct
+    public void inicia() {
+        ativa = true;
+        consumidor = new Thread(this::consome, "auditoria-checkin");
+        consumidor.setDaemon(true);
+        consumidor.start();
+    }
+
+    @PreDestroy
+    public void encerra() throws InterruptedException {
+        ativa = false;
+        consumidor.interrupt();
+        consumidor.join(5000);
+        grava();
+    }
+
+    public void publica(String cpf, String eticket, String assento, LocalDateTime dataHora) {
+        EventoCheckin evento = new EventoCheckin(cpf, eticket, assento, dataHora);
+        switch (politica) {
+            case BLOQUEAR -> {
+                try {
+                    fila.put(evento);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    descartadosFilaCheia.increment();
+                }
+            }
+            case AMOSTRAR -> {
+                if (fila.size() >= limiteAmostragem && sequenciaAmostragem.incrementAndGet() % taxaAmostragem != 0) {
+                    descartadosAmostragem.increment();
+                } else if (!fila.offer(evento)) {
+                    descartadosFilaCheia.increment();
+                }
+            }
+            default -> {
+                if (!fila.offer(evento)) {
+                    descartadosFilaCheia.increment();
+                }
+            }
+        }
+    }
+
+    private void consome() {
+        List<EventoCheckin> lote = new ArrayList<>(tamanhoLote);
+        StringBuilder registros = new StringBuilder();
+        while (ativa) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            fila.drainTo(lote, tamanhoLote - 1);
+            gravaLote(lote, registros);
+        }
+    }
+
+    /**
+     * Grava os eventos que ainda estão na fila.
+     */
+    void grava() {
+        List<EventoCheckin> lote = new ArrayList<>(tamanhoLote);
+        StringBuilder registros = new StringBuilder();
+        while (fila.drainTo(lote, tamanhoLote) > 0) {
+            gravaLote(lote, registros);
+        }
+    }
+
+    private void gravaLote(List<EventoCheckin> lote, StringBuilder registros) {
+        try {
+            for (EventoCheckin evento : lote) {
+                if (!registros.isEmpty()) {
+                    registros.append(System.lineSeparator());
+                }
+                registros.append(evento.dataHora()).append(';')
+                        .append(evento.cpf()).append(';')
+                        .append(evento.eticket()).append(';')
+                        .append(evento.assento());
+            }
+            AUDITORIA.info(registros.toString());
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar {} eventos de auditoria de check-in", lote.size(), e);
+        } finally {
+            lote.clear();
+            registros.setLength(0);
+        }
+    }
+
+}
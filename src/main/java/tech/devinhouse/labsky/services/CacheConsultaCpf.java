@@ -0,0 +1,65 @@
+package tech.devinhouse.labsky.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache limitado por tamanho e tempo de expiração das consultas de passageiro pelo CPF.
+ * <p>
+ * Os contadores de acertos, falhas e remoções são publicados como métricas {@code cache.*} com a tag
+ * {@code cache=passageiros.cpf}.
+ */
+@Component
+public class CacheConsultaCpf implements MeterBinder {
+
+    private final Cache<String, ConsultaCPFResponse> cache;
+
+    public CacheConsultaCpf(@Value("${labsky.cache.cpf.tamanho-maximo:10000}") long tamanhoMaximo,
+                            @Value("${labsky.cache.cpf.expiracao:5m}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna a consulta em cache ou a carrega com o carregador informado. Exceções lançadas pelo carregador
+     * são propagadas e nada é armazenado.
+     */
+    public ConsultaCPFResponse busca(String cpf, Function<String, ConsultaCPFResponse> carregador) {
+        return cache.get(cpf, carregador);
+    }
+
+    /**
+     * Retorna a consulta em cache, sem carregá-la.
+     *
+     * @return a consulta ou null se o CPF não estiver em cache
+     */
+    public ConsultaCPFResponse consulta(String cpf) {
+        return cache.getIfPresent(cpf);
+    }
+
+    public void atualiza(ConsultaCPFResponse consulta) {
+        cache.put(consulta.cpf(), consulta);
+    }
+
+    public void invalida(String cpf) {
+        cache.invalidate(cpf);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "passageiros.cpf");
+    }
+
+}
@@ -0,0 +1,48 @@
+package tech.devinhouse.labsky.services;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carrega os mapas de assentos dos voos e o índice de CPFs antes de o servidor web começar a aceitar requisições.
+ * <p>
+ * O servidor web (Tomcat ou Netty) é iniciado por um {@link SmartLifecycle} da fase {@code Integer.MAX_VALUE - 1};
+ * esta carga usa a fase 0 e por isso termina antes dele. Com {@code ApplicationReadyEvent} o servidor já estaria
+ * aceitando requisições, e um check-in nesse intervalo veria o mapa vazio e poderia ocupar um assento já ocupado no
+ * banco de dados.
+ */
+@Component
+public class CargaInicial implements SmartLifecycle {
+
+    private final InventarioAssentos inventario;
+    private final IndiceCpf indice;
+    private volatile boolean executando;
+
+    public CargaInicial(InventarioAssentos inventario, IndiceCpf indice) {
+        this.inventario = inventario;
+        this.indice = indice;
+    }
+
+    @Override
+    public void start() {
+        indice.carrega();
+        inventario.carregaTodos();
+        executando = true;
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+}
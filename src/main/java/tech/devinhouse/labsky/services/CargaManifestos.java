@@ -0,0 +1,46 @@
+package tech.devinhouse.labsky.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tech.devinhouse.labsky.enums.FormatoManifesto;
+import tech.devinhouse.labsky.records.response.ImportacaoResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Importa na inicialização da aplicação os manifestos listados em {@code labsky.importacao.arquivos}, depois da
+ * carga do {@code data.sql}. O formato de cada arquivo é identificado pela extensão ({@code .csv} ou {@code .jsonl}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "labsky.importacao.arquivos")
+public class CargaManifestos implements ApplicationRunner {
+
+    private final ImportacaoManifesto importacao;
+    private final List<Path> arquivos;
+
+    public CargaManifestos(ImportacaoManifesto importacao, @Value("${labsky.importacao.arquivos}") List<Path> arquivos) {
+        this.importacao = importacao;
+        this.arquivos = arquivos;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (Path arquivo : arquivos) {
+            FormatoManifesto formato = FormatoManifesto.pelaExtensao(arquivo.getFileName().toString());
+            try (InputStream entrada = Files.newInputStream(arquivo)) {
+                ImportacaoResponse resultado = importacao.importa(entrada, formato);
+                log.info("Manifesto {} importado: {} passageiros importados, {} linhas rejeitadas", arquivo, resultado.importados(), resultado.rejeitados());
+            }
+        }
+    }
+
+}
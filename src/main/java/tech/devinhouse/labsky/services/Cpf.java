@@ -0,0 +1,99 @@
+package tech.devinhouse.labsky.services;
+
+/**
+ * Representação numérica do CPF: os 11 dígitos como um {@code long}, sem a formatação.
+ * <p>
+ * A API e o banco de dados continuam usando o CPF formatado ("000.000.000-00"); o número é a forma canônica usada
+ * para comparar CPFs escritos com formatações diferentes e como chave do {@link IndiceCpf}.
+ */
+public final class Cpf {
+
+    public static final long INVALIDO = -1;
+
+    private static final int DIGITOS = 11;
+
+    private Cpf() {
+    }
+
+    /**
+     * Converte o CPF, com ou sem pontos, hífen e espaços, no seu número, sem alocar objetos.
+     *
+     * @return o número do CPF ou {@link #INVALIDO} se o texto não tiver exatamente 11 dígitos
+     */
+    public static long converte(CharSequence cpf) {
+        if (cpf == null) {
+            return INVALIDO;
+        }
+        long numero = 0;
+        int digitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > DIGITOS) {
+                    return INVALIDO;
+                }
+                numero = numero * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return INVALIDO;
+            }
+        }
+        return digitos == DIGITOS ? numero : INVALIDO;
+    }
+
+    /**
+     * Indica se um CPF já convertido com sucesso por {@link #converte} está escrito no padrão "000.000.000-00", sem
+     * alocar objetos.
+     */
+    public static boolean noFormatoPadrao(CharSequence cpf) {
+        return cpf.length() == 14 && cpf.charAt(3) == '.' && cpf.charAt(7) == '.' && cpf.charAt(11) == '-';
+    }
+
+    /**
+     * Formata o número do CPF no padrão "000.000.000-00".
+     */
+    public static String formata(long numero) {
+        char[] texto = new char[14];
+        long restante = numero;
+        for (int i = texto.length - 1; i >= 0; i--) {
+            if (i == 11) {
+                texto[i] = '-';
+            } else if (i == 3 || i == 7) {
+                texto[i] = '.';
+            } else {
+                texto[i] = (char) ('0' + restante % 10);
+                restante /= 10;
+            }
+        }
+        return new String(texto);
+    }
+
+    /**
+     * Valida os dois dígitos verificadores do CPF. CPFs com todos os dígitos iguais são inválidos.
+     */
+    public static boolean digitosValidos(long numero) {
+        if (numero < 0 || numero > 99_999_999_999L) {
+            return false;
+        }
+        int[] digitos = new int[DIGITOS];
+        long restante = numero;
+        for (int i = DIGITOS - 1; i >= 0; i--) {
+            digitos[i] = (int) (restante % 10);
+            restante /= 10;
+        }
+        boolean iguais = true;
+        for (int i = 1; i < DIGITOS; i++) {
+            iguais &= digitos[i] == digitos[0];
+        }
+        return !iguais && digitos[9] == verificador(digitos, 9) && digitos[10] == verificador(digitos, 10);
+    }
+
+    private static int verificador(int[] digitos, int quantidade) {
+        int soma = 0;
+        for (int i = 0; i < quantidade; i++) {
+            soma += digitos[i] * (quantidade + 1 - i);
+        }
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+
+}
@@ -0,0 +1,118 @@
+package tech.devinhouse.labsky.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Check-in idempotente pelo cabeçalho {@code Idempotency-Key}.
+ * <p>
+ * A primeira requisição com uma chave realiza o check-in e a resposta fica armazenada em memória, em um mapa
+ * limitado por tamanho e tempo de expiração. As repetições com a mesma chave recebem a mesma resposta sem
+ * consultar o banco de dados e, se chegarem enquanto o check-in ainda está em andamento, aguardam o seu
+ * resultado em vez de realizá-lo novamente. Check-ins com erro não são armazenados, para que a próxima repetição
+ * seja processada.
+ * <p>
+ * A chave é combinada com o número do CPF do request ({@link Cpf}), de modo que a mesma chave usada para outro
+ * passageiro não retorne o e-ticket de outra pessoa e que o mesmo CPF escrito em outra formatação use a mesma resposta. As requisições são contadas na métrica {@code checkin.idempotencia}, com a tag
+ * {@code resultado} ({@code nova} ou {@code repetida}).
+ */
+@Component
+public class IdempotenciaCheckin {
+
+    private final ConcurrentMap<String, CompletableFuture<ConfirmacaoResponse>> respostas;
+    private final Counter novas;
+    private final Counter repetidas;
+
+    public IdempotenciaCheckin(MeterRegistry registry,
+                               @Value("${labsky.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                               @Value("${labsky.idempotencia.expiracao:10m}") Duration expiracao) {
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .<String, CompletableFuture<ConfirmacaoResponse>>build()
+                .asMap();
+        this.novas = Counter.builder("checkin.idempotencia").tag("resultado", "nova").register(registry);
+        this.repetidas = Counter.builder("checkin.idempotencia").tag("resultado", "repetida").register(registry);
+    }
+
+    public ConfirmacaoResponse executa(String cpf, String chave, Supplier<ConfirmacaoResponse> checkin) {
+        String chaveCompleta = chaveCompleta(cpf, chave);
+        CompletableFuture<ConfirmacaoResponse> resposta = new CompletableFuture<>();
+        CompletableFuture<ConfirmacaoResponse> existente = respostas.putIfAbsent(chaveCompleta, resposta);
+        if (existente != null) {
+            repetidas.increment();
+            return aguarda(existente);
+        }
+
+        novas.increment();
+        try {
+            ConfirmacaoResponse confirmacao = checkin.get();
+            resposta.complete(confirmacao);
+            return confirmacao;
+        } catch (Throwable e) {
+            // inclusive Error, para que as repetições aguardando em aguarda() não fiquem bloqueadas para sempre
+            respostas.remove(chaveCompleta, resposta);
+            resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #executa(String, String, Supplier)}, usada pela implementação reativa.
+     */
+    public Mono<ConfirmacaoResponse> executaReativo(String cpf, String chave, Supplier<Mono<ConfirmacaoResponse>> checkin) {
+        return Mono.defer(() -> {
+            String chaveCompleta = chaveCompleta(cpf, chave);
+            CompletableFuture<ConfirmacaoResponse> resposta = new CompletableFuture<>();
+            CompletableFuture<ConfirmacaoResponse> existente = respostas.putIfAbsent(chaveCompleta, resposta);
+            if (existente != null) {
+                repetidas.increment();
+                // a cópia evita que o cancelamento desta requisição cancele o check-in em andamento
+                return Mono.fromFuture(existente.copy());
+            }
+
+            novas.increment();
+            return checkin.get()
+                    .doOnNext(resposta::complete)
+                    .doOnError(e -> {
+                        respostas.remove(chaveCompleta, resposta);
+                        resposta.completeExceptionally(e);
+                    })
+                    .doOnCancel(() -> {
+                        respostas.remove(chaveCompleta, resposta);
+                        resposta.cancel(false);
+                    });
+        });
+    }
+
+    private static String chaveCompleta(String cpf, String chave) {
+        long numero = Cpf.converte(cpf);
+        return (numero == Cpf.INVALIDO ? cpf : String.valueOf(numero)) + ':' + chave;
+    }
+
+    private static ConfirmacaoResponse aguarda(CompletableFuture<ConfirmacaoResponse> resposta) {
+        try {
+            return resposta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+package tech.devinhouse.labsky.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.FormatoManifesto;
+import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.models.Voo;
+import tech.devinhouse.labsky.records.response.ImportacaoResponse;
+import tech.devinhouse.labsky.records.response.LinhaRejeitadaResponse;
+import tech.devinhouse.labsky.repositories.VooRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação de manifestos de passageiros em CSV ou JSONL.
+ * <p>
+ * O arquivo é lido linha a linha, sem ser carregado inteiro em memória, e os passageiros válidos são inseridos
+ * com JDBC em lotes ({@code labsky.importacao.tamanho-lote}), cada lote em uma transação. Se o banco de dados
+ * rejeitar um lote (ex.: CPF já cadastrado), as linhas desse lote são inseridas uma a uma para identificar as
+ * rejeitadas. O progresso é registrado no log a cada {@value #INTERVALO_PROGRESSO} linhas. O CPF é gravado no
+ * formato padrão ({@link Cpf#formata(long)}), qualquer que seja a formatação do manifesto. Os passageiros sem voo
+ * são importados no voo padrão ({@code labsky.voo.padrao}), ou rejeitados se ele não estiver cadastrado, porque sem
+ * voo o passageiro não teria mapa de assentos para o check-in.
+ */
+@Slf4j
+@Component
+public class ImportacaoManifesto {
+
+    private static final String INSERCAO = "INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int LIMITE_LINHAS_REJEITADAS = 1000;
+    private static final int INTERVALO_PROGRESSO = 10_000;
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final int CPF = 0;
+    private static final int NOME = 1;
+    private static final int DATA_NASCIMENTO = 2;
+    private static final int CLASSIFICACAO = 3;
+    private static final int MILHAS = 4;
+    private static final int VOO = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final VooRepository vooRepository;
+    private final ObjectReader leitorJson;
+    private final int tamanhoLote;
+    private final String vooPadrao;
+
+    public ImportacaoManifesto(JdbcTemplate jdbcTemplate, TransactionTemplate transacao, VooRepository vooRepository, ObjectMapper objectMapper,
+                               @Value("${labsky.importacao.tamanho-lote:1000}") int tamanhoLote, @Value("${labsky.voo.padrao:LS1001}") String vooPadrao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = transacao;
+        this.vooRepository = vooRepository;
+        this.leitorJson = objectMapper.readerFor(Passageiro.class);
+        this.tamanhoLote = tamanhoLote;
+        this.vooPadrao = vooPadrao;
+    }
+
+    public ImportacaoResponse importa(InputStream entrada, FormatoManifesto formato) throws IOException {
+        Execucao execucao = new Execucao();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            int[] colunas = null;
+            long numero = 0;
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                if (formato == FormatoManifesto.CSV && colunas == null) {
+                    colunas = cabecalho(linha);
+                    continue;
+                }
+                execucao.processa(numero, linha, colunas);
+            }
+        }
+        return execucao.conclui();
+    }
+
+    /**
+     * Estado de uma importação: o lote em montagem e os contadores de linhas importadas e rejeitadas.
+     */
+    private final class Execucao {
+
+        private final long inicio = System.nanoTime();
+        private final Set<String> voos = new HashSet<>();
+        private final List<Object[]> lote = new ArrayList<>(tamanhoLote);
+        private final List<Long> linhasLote = new ArrayList<>(tamanhoLote);
+        private final List<LinhaRejeitadaResponse> linhasRejeitadas = new ArrayList<>();
+        private long importados;
+        private long rejeitados;
+        private long proximoProgresso = INTERVALO_PROGRESSO;
+
+        Execucao() {
+            for (Voo voo : vooRepository.findAll()) {
+                voos.add(voo.getCodigo());
+            }
+        }
+
+        void processa(long numero, String linha, int[] colunas) {
+            Passageiro passageiro;
+            try {
+                passageiro = colunas == null ? leitorJson.readValue(linha) : lePassageiroCsv(campos(linha), colunas);
+            } catch (JsonProcessingException | DateTimeParseException | IllegalArgumentException e) {
+                rejeita(numero, null, "Linha inválida: " + e.getMessage());
+                return;
+            }
+
+            if (passageiro.getCodigoVoo() == null && voos.contains(vooPadrao)) {
+                passageiro.setCodigoVoo(vooPadrao);
+            }
+            String motivo = motivoRejeicao(passageiro);
+            if (motivo != null) {
+                rejeita(numero, passageiro.getCpf(), motivo);
+                return;
+            }
+
+            Classificacao classificacao = passageiro.getClassificacao() == null ? Classificacao.ASSOCIADO : passageiro.getClassificacao();
+            lote.add(new Object[]{Cpf.formata(Cpf.converte(passageiro.getCpf())), passageiro.getNome(), Date.valueOf(passageiro.getDataNascimento()), classificacao.name(),
+                    passageiro.getMilhas() == null ? 0 : passageiro.getMilhas(), passageiro.getCodigoVoo()});
+            linhasLote.add(numero);
+            if (lote.size() >= tamanhoLote) {
+                gravaLote();
+            }
+        }
+
+        ImportacaoResponse conclui() {
+            gravaLote();
+            long duracao = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            log.info("Importação de manifesto concluída em {} ms: {} passageiros importados, {} linhas rejeitadas", duracao, importados, rejeitados);
+            return new ImportacaoResponse(importados, rejeitados, linhasRejeitadas, duracao);
+        }
+
+        private String motivoRejeicao(Passageiro passageiro) {
+            if (passageiro.getCpf() == null || passageiro.getCpf().isBlank()) {
+                return "CPF não informado";
+            } else if (Cpf.converte(passageiro.getCpf()) == Cpf.INVALIDO) {
+                return "CPF inválido";
+            } else if (passageiro.getNome() == null || passageiro.getNome().isBlank()) {
+                return "Nome não informado";
+            } else if (passageiro.getDataNascimento() == null) {
+                return "Data de nascimento não informada";
+            } else if (passageiro.getCodigoVoo() == null) {
+                return "Voo não informado";
+            } else if (!voos.contains(passageiro.getCodigoVoo())) {
+                return "Voo não encontrado";
+            }
+            return null;
+        }
+
+        private void gravaLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            try {
+                transacao.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERCAO, lote));
+                importados += lote.size();
+            } catch (DataAccessException e) {
+                for (int i = 0; i < lote.size(); i++) {
+                    Object[] passageiro = lote.get(i);
+                    try {
+                        jdbcTemplate.update(INSERCAO, passageiro);
+                        importados++;
+                    } catch (DuplicateKeyException ex) {
+                        rejeita(linhasLote.get(i), (String) passageiro[CPF], "CPF já cadastrado");
+                    } catch (DataAccessException ex) {
+                        rejeita(linhasLote.get(i), (String) passageiro[CPF], ex.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            lote.clear();
+            linhasLote.clear();
+            registraProgresso();
+        }
+
+        private void rejeita(long linha, String cpf, String motivo) {
+            rejeitados++;
+            if (linhasRejeitadas.size() < LIMITE_LINHAS_REJEITADAS) {
+                linhasRejeitadas.add(new LinhaRejeitadaResponse(linha, cpf, motivo));
+            }
+        }
+
+        private void registraProgresso() {
+            if (importados + rejeitados >= proximoProgresso) {
+                log.info("Importação de manifesto em andamento: {} passageiros importados, {} linhas rejeitadas", importados, rejeitados);
+                proximoProgresso = (importados + rejeitados) / INTERVALO_PROGRESSO * INTERVALO_PROGRESSO + INTERVALO_PROGRESSO;
+            }
+        }
+    }
+
+    /**
+     * Identifica a posição de cada coluna conhecida no cabeçalho do CSV.
+     */
+    private static int[] cabecalho(String linha) {
+        List<String> nomes = campos(linha.startsWith("﻿") ? linha.substring(1) : linha);
+        int[] colunas = {-1, -1, -1, -1, -1, -1};
+        for (int i = 0; i < nomes.size(); i++) {
+            switch (nomes.get(i).toLowerCase().replace("_", "")) {
+                case "cpf" -> colunas[CPF] = i;
+                case "nome" -> colunas[NOME] = i;
+                case "datanascimento" -> colunas[DATA_NASCIMENTO] = i;
+                case "classificacao" -> colunas[CLASSIFICACAO] = i;
+                case "milhas" -> colunas[MILHAS] = i;
+                case "codigovoo", "voo", "voocodigo" -> colunas[VOO] = i;
+                default -> {
+                    // colunas desconhecidas são ignoradas
+                }
+            }
+        }
+        if (colunas[CPF] < 0 || colunas[NOME] < 0 || colunas[DATA_NASCIMENTO] < 0) {
+            throw new IllegalArgumentException("O cabeçalho do manifesto deve conter as colunas cpf, nome e dataNascimento");
+        }
+        return colunas;
+    }
+
+    private static Passageiro lePassageiroCsv(List<String> campos, int[] colunas) {
+        Passageiro passageiro = new Passageiro(campo(campos, colunas[CPF]), campo(campos, colunas[NOME]));
+        String dataNascimento = campo(campos, colunas[DATA_NASCIMENTO]);
+        if (dataNascimento != null) {
+            passageiro.setDataNascimento(dataNascimento.indexOf('/') >= 0 ? LocalDate.parse(dataNascimento, DATA) : LocalDate.parse(dataNascimento));
+        }
+        String classificacao = campo(campos, colunas[CLASSIFICACAO]);
+        passageiro.setClassificacao(classificacao == null ? null : Classificacao.valueOf(classificacao.toUpperCase()));
+        String milhas = campo(campos, colunas[MILHAS]);
+        passageiro.setMilhas(milhas == null ? null : Integer.valueOf(milhas));
+        passageiro.setCodigoVoo(campo(campos, colunas[VOO]));
+        return passageiro;
+    }
+
+    private static String campo(List<String> campos, int coluna) {
+        if (coluna < 0 || coluna >= campos.size() || campos.get(coluna).isEmpty()) {
+            return null;
+        }
+        return campos.get(coluna);
+    }
+
+    /**
+     * Separa os campos de uma linha CSV. Campos entre aspas duplas podem conter vírgulas e aspas duplicadas ("").
+     */
+    private static List<String> campos(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (aspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    aspas = false;
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+}
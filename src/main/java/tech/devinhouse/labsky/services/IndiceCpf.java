@@ -0,0 +1,191 @@
+package tech.devinhouse.labsky.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Índice em memória dos passageiros pelo número do CPF ({@link Cpf}), usado pela consulta por CPF e pelo check-in
+ * para encontrar a chave do passageiro no banco de dados a partir do CPF informado em qualquer formatação.
+ * <p>
+ * É uma tabela hash de endereçamento aberto com sondagem linear, com as chaves em um {@code long[]}, sem objetos por
+ * chave nem conversões para {@code Long}. Como a importação grava o CPF no formato padrão, a chave cadastrada só é
+ * guardada, em um {@code String[]} paralelo, para os passageiros cadastrados em outra formatação; para os demais a
+ * chave é o próprio número formatado. As leituras não usam bloqueios e as inclusões são sincronizadas: a inclusão grava
+ * a chave cadastrada e depois publica o número com {@code setRelease}, e a leitura lê o número com
+ * {@code getAcquire}, então quem encontra o número também enxerga a chave cadastrada. Ao passar de 60% de ocupação, a
+ * tabela é copiada para uma com o dobro do tamanho, publicada pela referência volátil.
+ * <p>
+ * O índice resolve apenas a chave do passageiro, sem acessar o banco de dados; a consulta dos dados do passageiro
+ * continua passando pelo {@link CacheConsultaCpf} e, na falta dele, pelo banco de dados.
+ * <p>
+ * O índice guarda apenas a chave: os dados da consulta por CPF (milhas e check-in) mudam a cada check-in e ficam no
+ * {@link CacheConsultaCpf}, que já é invalidado nesses momentos. Um CPF fora do índice é procurado no banco de dados
+ * no formato padrão, e o passageiro encontrado é incluído no índice.
+ */
+@Slf4j
+@Component
+public class IndiceCpf {
+
+    private static final long VAZIO = -1;
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean validaDigitos;
+    private volatile Tabela tabela = new Tabela(CAPACIDADE_INICIAL);
+
+    public IndiceCpf(JdbcTemplate jdbcTemplate, @Value("${labsky.cpf.validar-digitos:false}") boolean validaDigitos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validaDigitos = validaDigitos;
+    }
+
+    /**
+     * Inclui no índice todos os passageiros do banco de dados; chamado pela {@link CargaInicial} antes de o servidor
+     * web aceitar requisições.
+     */
+    public void carrega() {
+        long inicio = System.nanoTime();
+        jdbcTemplate.query("SELECT cpf FROM passageiros", (RowCallbackHandler) linha -> inclui(linha.getString(1)));
+        log.info("Índice de CPFs carregado com {} passageiros em {} ms", tamanho(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    /**
+     * Converte o CPF informado, em qualquer formatação, na chave do passageiro no banco de dados.
+     *
+     * @throws DominioException com o código {@link CodigoErro#CPF_INVALIDO} se o CPF não tiver 11 dígitos ou, com
+     *                          {@code labsky.cpf.validar-digitos=true}, se os dígitos verificadores forem inválidos
+     */
+    public String chave(String cpf) {
+        String chave = chaveOuNula(cpf);
+        if (chave == null) {
+            throw DominioException.de(CodigoErro.CPF_INVALIDO);
+        }
+        return chave;
+    }
+
+    /**
+     * Como {@link #chave(String)}, mas retorna {@code null} se o CPF for inválido.
+     */
+    public String chaveOuNula(String cpf) {
+        long numero = Cpf.converte(cpf);
+        if (numero == Cpf.INVALIDO || (validaDigitos && !Cpf.digitosValidos(numero))) {
+            return null;
+        }
+        return chave(numero);
+    }
+
+    /**
+     * Retorna a chave do passageiro no banco de dados: a chave cadastrada, se o CPF estiver no índice em outra
+     * formatação, ou o CPF no formato padrão.
+     */
+    public String chave(long numero) {
+        String cadastrada = tabela.busca(numero);
+        return cadastrada == null ? Cpf.formata(numero) : cadastrada;
+    }
+
+    public boolean contem(long numero) {
+        return tabela.contem(numero);
+    }
+
+    /**
+     * Inclui no índice o passageiro com a chave informada, se o CPF for válido.
+     */
+    public void inclui(String cpf) {
+        long numero = Cpf.converte(cpf);
+        if (numero == Cpf.INVALIDO || contem(numero)) {
+            return;
+        }
+        String cadastrada = Cpf.noFormatoPadrao(cpf) ? null : cpf;
+        synchronized (this) {
+            Tabela atual = tabela;
+            if (atual.lotada()) {
+                atual = atual.duplica();
+            }
+            atual.inclui(numero, cadastrada);
+            tabela = atual;
+        }
+    }
+
+    public int tamanho() {
+        return tabela.tamanho;
+    }
+
+    private static final class Tabela {
+
+        private final AtomicLongArray chaves;
+        // chave cadastrada, só para os passageiros cadastrados fora do formato padrão
+        private final AtomicReferenceArray<String> cadastradas;
+        private final int mascara;
+        private volatile int tamanho;
+
+        private Tabela(int capacidade) {
+            this.chaves = new AtomicLongArray(capacidade);
+            this.cadastradas = new AtomicReferenceArray<>(capacidade);
+            this.mascara = capacidade - 1;
+            for (int i = 0; i < capacidade; i++) {
+                chaves.setPlain(i, VAZIO);
+            }
+        }
+
+        private int posicaoDe(long numero) {
+            for (int i = posicao(numero); ; i = (i + 1) & mascara) {
+                long chave = chaves.getAcquire(i);
+                if (chave == VAZIO || chave == numero) {
+                    return chave == VAZIO ? -1 : i;
+                }
+            }
+        }
+
+        private boolean contem(long numero) {
+            return posicaoDe(numero) >= 0;
+        }
+
+        private String busca(long numero) {
+            int i = posicaoDe(numero);
+            return i < 0 ? null : cadastradas.getPlain(i);
+        }
+
+        private void inclui(long numero, String cadastrada) {
+            int i = posicao(numero);
+            for (long chave; (chave = chaves.getPlain(i)) != VAZIO; i = (i + 1) & mascara) {
+                if (chave == numero) {
+                    return;
+                }
+            }
+            // o número publicado com release torna a chave cadastrada, gravada antes, visível a quem o lê com acquire
+            cadastradas.setPlain(i, cadastrada);
+            chaves.setRelease(i, numero);
+            tamanho++;
+        }
+
+        private boolean lotada() {
+            return tamanho + 1 > chaves.length() * 0.6;
+        }
+
+        private Tabela duplica() {
+            Tabela nova = new Tabela(chaves.length() * 2);
+            for (int i = 0; i < chaves.length(); i++) {
+                long chave = chaves.getPlain(i);
+                if (chave != VAZIO) {
+                    nova.inclui(chave, cadastradas.getPlain(i));
+                }
+            }
+            return nova;
+        }
+
+        private int posicao(long numero) {
+            // mistura os bits do número (constante de Fibonacci) para espalhar CPFs sequenciais
+            return (int) ((numero * 0x9E3779B97F4A7C15L) >>> 32) & mascara;
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package tech.devinhouse.labsky.services;
+
+import org.springframework.stereotype.Component;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.models.Voo;
+import tech.devinhouse.labsky.repositories.PassageiroRepository;
+import tech.devinhouse.labsky.repositories.VooRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapas de assentos dos voos.
+ * <p>
+ * Os mapas dos voos cadastrados são montados pela {@link CargaInicial} antes de o servidor web aceitar
+ * requisições, e o de um voo incluído depois disso, na primeira vez em que é usado. O mapa é montado com a configuração da aeronave do voo e os assentos
+ * já ocupados lidos por voo no índice (voo, assento), compilando a {@link PoliticaAssentos política de assentos}
+ * nas máscaras de classe das fileiras, e depois disso o check-in não consulta mais o banco de dados
+ * para verificar a ocupação.
+ */
+@Component
+public class InventarioAssentos {
+
+    private final Map<String, MapaAssentos> mapas = new ConcurrentHashMap<>();
+
+    private final VooRepository vooRepository;
+    private final PassageiroRepository passageiroRepository;
+    private final PoliticaAssentos politica;
+
+    public InventarioAssentos(VooRepository vooRepository, PassageiroRepository passageiroRepository, PoliticaAssentos politica) {
+        this.vooRepository = vooRepository;
+        this.passageiroRepository = passageiroRepository;
+        this.politica = politica;
+    }
+
+    /**
+     * @throws DominioException com o código {@link CodigoErro#VOO_NAO_ENCONTRADO} se o voo não existir
+     */
+    public MapaAssentos mapa(String codigoVoo) {
+        if (codigoVoo == null) {
+            throw DominioException.de(CodigoErro.VOO_NAO_ENCONTRADO);
+        }
+        MapaAssentos mapa = mapas.get(codigoVoo);
+        return mapa != null ? mapa : mapas.computeIfAbsent(codigoVoo, this::carrega);
+    }
+
+    /**
+     * Retorna o mapa do voo somente se ele já estiver montado, sem consultar o banco de dados.
+     *
+     * @return o mapa ou null se ainda não foi montado
+     */
+    public MapaAssentos mapaCarregado(String codigoVoo) {
+        return mapas.get(codigoVoo);
+    }
+
+    /**
+     * Monta os mapas de todos os voos cadastrados que ainda não estejam montados.
+     */
+    public void carregaTodos() {
+        for (Voo voo : vooRepository.findAll()) {
+            mapas.computeIfAbsent(voo.getCodigo(), codigo -> monta(voo));
+        }
+    }
+
+    /**
+     * Descarta os mapas em memória, que serão montados novamente a partir do banco de dados.
+     */
+    public void recarrega() {
+        mapas.clear();
+    }
+
+    private MapaAssentos carrega(String codigoVoo) {
+        Voo voo = vooRepository.findById(codigoVoo).orElseThrow(() -> DominioException.de(CodigoErro.VOO_NAO_ENCONTRADO));
+        return monta(voo);
+    }
+
+    private MapaAssentos monta(Voo voo) {
+        MapaAssentos mapa = MapaAssentos.de(voo, politica);
+        for (String assento : passageiroRepository.findAssentosOcupados(voo.getCodigo())) {
+            int indice = mapa.indice(assento);
+            if (indice >= 0) {
+                mapa.ocupa(indice);
+            }
+        }
+        return mapa;
+    }
+
+}
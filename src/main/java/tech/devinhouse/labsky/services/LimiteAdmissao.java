@@ -0,0 +1,145 @@
+package tech.devinhouse.labsky.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controle de admissão de um grupo de endpoints: limite de requisições simultâneas e balde de tokens por cliente.
+ * <p>
+ * A requisição é admitida se o balde do cliente tiver um token e houver uma permissão livre. Sem permissão livre,
+ * a requisição aguarda no máximo {@code espera} por uma permissão, com no máximo {@code fila} requisições
+ * aguardando ao mesmo tempo; fora desses limites ela é rejeitada imediatamente, sem ocupar uma thread por mais
+ * tempo nem uma conexão com o banco de dados. A rejeição informa em quantos segundos o cliente pode tentar
+ * novamente.
+ * <p>
+ * Métricas, com a tag {@code grupo}: {@code admissao.requisicoes} com as tags {@code resultado} ({@code admitida},
+ * {@code enfileirada} ou {@code rejeitada}) e {@code motivo} ({@code nenhum}, {@code taxa} ou {@code concorrencia}),
+ * {@code admissao.fila} com as requisições aguardando e {@code admissao.execucao} com as requisições admitidas em
+ * andamento.
+ */
+public class LimiteAdmissao {
+
+    public static final int ADMITIDA = 0;
+
+    private final int fila;
+    private final long esperaNanos;
+    private final double tokensPorNano;
+    private final double rajada;
+    private final Semaphore permissoes;
+    private final AtomicInteger aguardando = new AtomicInteger();
+    private final Cache<String, BaldeTokens> baldes;
+    private final Counter admitidas;
+    private final Counter enfileiradas;
+    private final Counter rejeitadasTaxa;
+    private final Counter rejeitadasConcorrencia;
+
+    /**
+     * @param taxaPorCliente tokens por segundo de cada cliente; zero desativa o limite por cliente
+     * @param rajadaPorCliente capacidade do balde de cada cliente
+     */
+    public LimiteAdmissao(String grupo, MeterRegistry registry, int concorrencia, int fila, Duration espera,
+                          double taxaPorCliente, int rajadaPorCliente) {
+        this.fila = fila;
+        this.esperaNanos = espera.toNanos();
+        this.tokensPorNano = taxaPorCliente / TimeUnit.SECONDS.toNanos(1);
+        this.rajada = Math.max(1, rajadaPorCliente);
+        this.permissoes = new Semaphore(concorrencia);
+        this.baldes = taxaPorCliente > 0
+                ? Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(Duration.ofMinutes(1)).build()
+                : null;
+        this.admitidas = contador(registry, grupo, "admitida", "nenhum");
+        this.enfileiradas = contador(registry, grupo, "enfileirada", "nenhum");
+        this.rejeitadasTaxa = contador(registry, grupo, "rejeitada", "taxa");
+        this.rejeitadasConcorrencia = contador(registry, grupo, "rejeitada", "concorrencia");
+        Gauge.builder("admissao.fila", aguardando, AtomicInteger::get).tag("grupo", grupo).register(registry);
+        Gauge.builder("admissao.execucao", permissoes, p -> concorrencia - p.availablePermits()).tag("grupo", grupo).register(registry);
+    }
+
+    /**
+     * Tenta admitir uma requisição do cliente.
+     *
+     * @return {@link #ADMITIDA}, e nesse caso {@link #libera()} deve ser chamado ao fim da requisição, ou o número
+     * de segundos para o cabeçalho {@code Retry-After} da rejeição
+     */
+    public int admite(String cliente) {
+        if (baldes != null) {
+            long espera = baldes.get(cliente, c -> new BaldeTokens(rajada, System.nanoTime())).consome(rajada, tokensPorNano, System.nanoTime());
+            if (espera > 0) {
+                rejeitadasTaxa.increment();
+                return segundos(espera);
+            }
+        }
+
+        if (permissoes.tryAcquire()) {
+            admitidas.increment();
+            return ADMITIDA;
+        }
+        if (esperaNanos > 0) {
+            try {
+                if (aguardando.incrementAndGet() <= fila && permissoes.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                    enfileiradas.increment();
+                    return ADMITIDA;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                aguardando.decrementAndGet();
+            }
+        }
+        rejeitadasConcorrencia.increment();
+        return 1;
+    }
+
+    public void libera() {
+        permissoes.release();
+    }
+
+    private static int segundos(long nanos) {
+        return (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Counter contador(MeterRegistry registry, String grupo, String resultado, String motivo) {
+        return Counter.builder("admissao.requisicoes")
+                .tag("grupo", grupo)
+                .tag("resultado", resultado)
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+
+    /**
+     * Balde de tokens de um cliente, reabastecido de forma contínua a cada consumo.
+     */
+    private static final class BaldeTokens {
+
+        private double tokens;
+        private long atualizacao;
+
+        private BaldeTokens(double tokens, long atualizacao) {
+            this.tokens = tokens;
+            this.atualizacao = atualizacao;
+        }
+
+        /**
+         * Consome um token e retorna zero, ou retorna os nanossegundos até o próximo token ficar disponível.
+         */
+        private synchronized long consome(double capacidade, double tokensPorNano, long agora) {
+            tokens = Math.min(capacidade, tokens + (agora - atualizacao) * tokensPorNano);
+            atualizacao = agora;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPorNano);
+        }
+
+    }
+
+}
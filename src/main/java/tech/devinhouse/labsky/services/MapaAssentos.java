@@ -0,0 +1,314 @@
+package tech.devinhouse.labsky.services;
+
+import tech.devinhouse.labsky.enums.ClasseAssento;
+import tech.devinhouse.labsky.models.Voo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mapa de ocupação dos assentos da aeronave de um voo, mantido em memória.
+ * <p>
+ * Cada fileira é representada por uma máscara de bits (um bit por coluna) e a ocupação de um assento
+ * é feita com uma única operação atômica de compare-and-set, sem consulta ao banco de dados. Cada alteração
+ * na ocupação incrementa a {@link #versao() versão} do mapa.
+ * <p>
+ * A {@link PoliticaAssentos política de assentos} é compilada na criação do mapa como a máscara de classe de cada
+ * fileira ({@link ClasseAssento#bit()}), comparada com as classes permitidas ao passageiro em
+ * {@link #permitido(int, int)}, {@link #ocupaAdjacentes(int, int)} e {@link #ocupaGrupo(int, int)}.
+ */
+public class MapaAssentos {
+
+    private final int fileiras;
+    private final String colunas;
+    private final PoliticaAssentos politica;
+    private final ClasseAssento[] classes;
+    private final int[] mascarasClasse;
+    private final List<String> assentos;
+    private final AtomicLongArray ocupacao;
+    private final AtomicLong versao = new AtomicLong();
+
+    public MapaAssentos(int fileiras, String colunas, Set<Integer> fileirasEmergencia) {
+        this(fileiras, colunas, fileirasEmergencia, PoliticaAssentos.PADRAO);
+    }
+
+    public MapaAssentos(int fileiras, String colunas, Set<Integer> fileirasEmergencia, PoliticaAssentos politica) {
+        if (fileiras < 1 || colunas.isEmpty() || colunas.length() > Long.SIZE) {
+            throw new IllegalArgumentException("Configuração de assentos inválida: " + fileiras + " fileiras e colunas " + colunas);
+        }
+        this.fileiras = fileiras;
+        this.colunas = colunas.toUpperCase();
+        this.politica = politica.daAeronave(fileiras, this.colunas);
+        this.classes = new ClasseAssento[fileiras];
+        this.mascarasClasse = new int[fileiras];
+        for (int fileira = 1; fileira <= fileiras; fileira++) {
+            classes[fileira - 1] = this.politica.classe(fileira, fileirasEmergencia.contains(fileira));
+            mascarasClasse[fileira - 1] = classes[fileira - 1].bit();
+        }
+        this.assentos = geraAssentos(fileiras, this.colunas);
+        this.ocupacao = new AtomicLongArray(fileiras);
+    }
+
+    /**
+     * Cria o mapa de assentos vazio com a configuração da aeronave do voo e a política de assentos padrão.
+     */
+    public static MapaAssentos de(Voo voo) {
+        return de(voo, PoliticaAssentos.PADRAO);
+    }
+
+    /**
+     * Cria o mapa de assentos vazio com a configuração da aeronave do voo.
+     */
+    public static MapaAssentos de(Voo voo, PoliticaAssentos politica) {
+        Set<Integer> emergencia = new HashSet<>();
+        if (voo.getFileirasEmergencia() != null) {
+            for (String fileira : voo.getFileirasEmergencia().split(",")) {
+                if (!fileira.isBlank()) {
+                    emergencia.add(Integer.parseInt(fileira.trim()));
+                }
+            }
+        }
+        return new MapaAssentos(voo.getFileiras(), voo.getColunas(), emergencia, politica);
+    }
+
+    /**
+     * Todos os assentos da aeronave, na ordem dos seus índices.
+     */
+    public List<String> assentos() {
+        return assentos;
+    }
+
+    public PoliticaAssentos politica() {
+        return politica;
+    }
+
+    public long versao() {
+        return versao.get();
+    }
+
+    /**
+     * Converte o código do assento (ex.: "10A") no seu índice no mapa.
+     *
+     * @return o índice do assento ou -1 se o assento não existir na aeronave
+     */
+    public int indice(String assento) {
+        int tamanho = assento.length();
+        if (tamanho < 2) {
+            return -1;
+        }
+        int fileira = 0;
+        for (int i = 0; i < tamanho - 1; i++) {
+            char c = assento.charAt(i);
+            if (c < '0' || c > '9' || fileira > fileiras) {
+                return -1;
+            }
+            fileira = fileira * 10 + (c - '0');
+        }
+        int coluna = colunas.indexOf(Character.toUpperCase(assento.charAt(tamanho - 1)));
+        if (fileira < 1 || fileira > fileiras || coluna < 0) {
+            return -1;
+        }
+        return (fileira - 1) * colunas.length() + coluna;
+    }
+
+    public boolean ocupado(int indice) {
+        return (ocupacao.get(fileira(indice)) & mascara(indice)) != 0;
+    }
+
+    /**
+     * Ocupa o assento de forma atômica.
+     *
+     * @return true se o assento estava livre e foi ocupado por esta chamada
+     */
+    public boolean ocupa(int indice) {
+        int fileira = fileira(indice);
+        long mascara = mascara(indice);
+        long atual;
+        do {
+            atual = ocupacao.get(fileira);
+            if ((atual & mascara) != 0) {
+                return false;
+            }
+        } while (!ocupacao.compareAndSet(fileira, atual, atual | mascara));
+        versao.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Procura, da primeira para a última fileira, {@code quantidade} assentos livres e adjacentes na mesma fileira e
+     * os ocupa com uma única operação atômica. A busca é feita na máscara de bits de cada fileira: os assentos livres
+     * são os bits zerados e o início de uma sequência livre é o bit que continua ligado depois de combinar a máscara
+     * de livres com ela mesma deslocada de 1 até {@code quantidade - 1} posições. Os corredores não são considerados.
+     *
+     * @param classesPermitidas máscara das classes de assento que podem ser usadas ({@link ClasseAssento#bit()})
+     * @return o índice do primeiro assento ocupado ou -1 se nenhuma fileira tiver assentos livres suficientes
+     */
+    public int ocupaAdjacentes(int quantidade, int classesPermitidas) {
+        int largura = colunas.length();
+        if (quantidade < 1 || quantidade > largura) {
+            return -1;
+        }
+        long todas = largura == Long.SIZE ? -1L : (1L << largura) - 1;
+        for (int fileira = 0; fileira < fileiras; fileira++) {
+            if ((mascarasClasse[fileira] & classesPermitidas) == 0) {
+                continue;
+            }
+            int primeiro = ocupaNaFileira(fileira, quantidade, todas);
+            if (primeiro >= 0) {
+                return primeiro;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ocupa assentos para um grupo de {@code quantidade} passageiros. Um grupo que cabe em uma fileira ocupa assentos
+     * adjacentes, como em {@link #ocupaAdjacentes}. Um grupo maior que a largura da fileira é dividido em blocos de
+     * tamanhos próximos (10 passageiros em fileiras de 6 assentos: 5 e 5), colocados em fileiras consecutivas, cada
+     * bloco com assentos adjacentes. As fileiras são conferidas antes de ocupar os blocos, um a um; se outra requisição
+     * ocupar um dos assentos no meio do caminho, os blocos já ocupados são liberados e a busca continua.
+     *
+     * @param classesPermitidas máscara das classes de assento que podem ser usadas ({@link ClasseAssento#bit()})
+     * @return os índices dos assentos ocupados, em ordem, ou um array vazio se não houver assentos suficientes
+     */
+    public int[] ocupaGrupo(int quantidade, int classesPermitidas) {
+        int largura = colunas.length();
+        if (quantidade <= largura) {
+            int primeiro = ocupaAdjacentes(quantidade, classesPermitidas);
+            return primeiro < 0 ? new int[0] : sequencia(primeiro, quantidade);
+        }
+        int blocos = (quantidade + largura - 1) / largura;
+        long todas = largura == Long.SIZE ? -1L : (1L << largura) - 1;
+        for (int primeira = 0; primeira + blocos <= fileiras; primeira++) {
+            if (!blocosLivres(primeira, blocos, quantidade, classesPermitidas, todas)) {
+                continue;
+            }
+            int[] indices = new int[quantidade];
+            int ocupados = 0;
+            for (int bloco = 0; bloco < blocos; bloco++) {
+                int tamanho = tamanhoBloco(bloco, blocos, quantidade);
+                int primeiro = ocupaNaFileira(primeira + bloco, tamanho, todas);
+                if (primeiro < 0) {
+                    break;
+                }
+                for (int i = 0; i < tamanho; i++) {
+                    indices[ocupados++] = primeiro + i;
+                }
+            }
+            if (ocupados == quantidade) {
+                return indices;
+            }
+            for (int i = 0; i < ocupados; i++) {
+                libera(indices[i]);
+            }
+        }
+        return new int[0];
+    }
+
+    public void libera(int indice) {
+        int fileira = fileira(indice);
+        long mascara = mascara(indice);
+        long atual;
+        do {
+            atual = ocupacao.get(fileira);
+            if ((atual & mascara) == 0) {
+                return;
+            }
+        } while (!ocupacao.compareAndSet(fileira, atual, atual & ~mascara));
+        versao.incrementAndGet();
+    }
+
+    /**
+     * Indica se o assento pertence a uma das fileiras de emergência da aeronave.
+     */
+    public boolean emergencia(int indice) {
+        return classes[fileira(indice)] == ClasseAssento.EMERGENCIA;
+    }
+
+    public ClasseAssento classe(int indice) {
+        return classes[fileira(indice)];
+    }
+
+    /**
+     * Indica se a classe do assento está entre as classes permitidas ao passageiro
+     * ({@link PoliticaAssentos#classesPermitidas}).
+     */
+    public boolean permitido(int indice, int classesPermitidas) {
+        return (mascarasClasse[fileira(indice)] & classesPermitidas) != 0;
+    }
+
+    private int fileira(int indice) {
+        return indice / colunas.length();
+    }
+
+    private long mascara(int indice) {
+        return 1L << (indice % colunas.length());
+    }
+
+    private boolean blocosLivres(int primeira, int blocos, int quantidade, int classesPermitidas, long todas) {
+        for (int bloco = 0; bloco < blocos; bloco++) {
+            int fileira = primeira + bloco;
+            if ((mascarasClasse[fileira] & classesPermitidas) == 0
+                    || inicioLivre(~ocupacao.get(fileira) & todas, tamanhoBloco(bloco, blocos, quantidade)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ocupa {@code quantidade} assentos livres e adjacentes da fileira.
+     *
+     * @return o índice do primeiro assento ocupado ou -1 se a fileira não tiver assentos livres suficientes
+     */
+    private int ocupaNaFileira(int fileira, int quantidade, long todas) {
+        long grupo = quantidade == Long.SIZE ? -1L : (1L << quantidade) - 1;
+        long atual = ocupacao.get(fileira);
+        int inicio = inicioLivre(~atual & todas, quantidade);
+        while (inicio >= 0) {
+            if (ocupacao.compareAndSet(fileira, atual, atual | (grupo << inicio))) {
+                versao.incrementAndGet();
+                return fileira * colunas.length() + inicio;
+            }
+            atual = ocupacao.get(fileira);
+            inicio = inicioLivre(~atual & todas, quantidade);
+        }
+        return -1;
+    }
+
+    private static int tamanhoBloco(int bloco, int blocos, int quantidade) {
+        return quantidade / blocos + (bloco < quantidade % blocos ? 1 : 0);
+    }
+
+    private static int[] sequencia(int primeiro, int quantidade) {
+        int[] indices = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            indices[i] = primeiro + i;
+        }
+        return indices;
+    }
+
+    private static int inicioLivre(long livres, int quantidade) {
+        long inicios = livres;
+        for (int deslocamento = 1; deslocamento < quantidade && inicios != 0; deslocamento++) {
+            inicios &= livres >>> deslocamento;
+        }
+        return inicios == 0 ? -1 : Long.numberOfTrailingZeros(inicios);
+    }
+
+    private static List<String> geraAssentos(int fileiras, String colunas) {
+        List<String> assentos = new ArrayList<>(fileiras * colunas.length());
+        for (int fileira = 1; fileira <= fileiras; fileira++) {
+            for (int coluna = 0; coluna < colunas.length(); coluna++) {
+                assentos.add(fileira + String.valueOf(colunas.charAt(coluna)));
+            }
+        }
+        return Collections.unmodifiableList(assentos);
+    }
+
+}
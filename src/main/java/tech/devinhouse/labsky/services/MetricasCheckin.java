@@ -0,0 +1,118 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Temporizadores de cada etapa do check-in, publicados como {@code checkin.etapa} com as tags {@code etapa} e
+ * {@code resultado} (sucesso, 404, 409 ou 400 com o motivo da rejeição).
+ * <p>
+ * Os temporizadores de todas as combinações de etapa e resultado são registrados na construção, e a medição de uma
+ * etapa só para a amostra no temporizador já registrado, sem consultar o registro nem criar tags no check-in.
+ */
+@Component
+public class MetricasCheckin {
+
+    public static final String BUSCA_PASSAGEIRO = "busca_passageiro";
+    public static final String VALIDACAO_REGRAS = "validacao_regras";
+    public static final String OCUPACAO_ASSENTO = "ocupacao_assento";
+    public static final String GRAVACAO = "gravacao";
+    public static final String MAPEAMENTO_RESPOSTA = "mapeamento_resposta";
+
+    private static final List<String> ETAPAS = List.of(BUSCA_PASSAGEIRO, VALIDACAO_REGRAS, OCUPACAO_ASSENTO, GRAVACAO, MAPEAMENTO_RESPOSTA);
+    private static final String SUCESSO = "sucesso";
+    private static final String ERRO = "erro";
+    private static final Map<CodigoErro, String> RESULTADOS = geraResultados();
+
+    private final MeterRegistry registry;
+    private final Map<String, Temporizadores> temporizadores = new HashMap<>();
+
+    public MetricasCheckin(MeterRegistry registry) {
+        this.registry = registry;
+        for (String etapa : ETAPAS) {
+            Map<CodigoErro, Timer> rejeicoes = new EnumMap<>(CodigoErro.class);
+            RESULTADOS.forEach((codigo, resultado) -> rejeicoes.put(codigo, registra(etapa, resultado)));
+            temporizadores.put(etapa, new Temporizadores(registra(etapa, SUCESSO), registra(etapa, ERRO), rejeicoes));
+        }
+    }
+
+    /**
+     * @param etapa uma das etapas definidas nesta classe
+     */
+    public <T> T mede(String etapa, Supplier<T> operacao) {
+        Temporizadores temporizadoresEtapa = temporizadores(etapa);
+        Timer.Sample amostra = Timer.start(registry);
+        Timer temporizador = temporizadoresEtapa.sucesso();
+        try {
+            return operacao.get();
+        } catch (RuntimeException e) {
+            temporizador = temporizadoresEtapa.de(e);
+            throw e;
+        } finally {
+            amostra.stop(temporizador);
+        }
+    }
+
+    /**
+     * Mede a etapa da implementação reativa, da assinatura até o valor ou o erro da operação.
+     *
+     * @param etapa uma das etapas definidas nesta classe
+     */
+    public <T> Mono<T> medeReativo(String etapa, Mono<T> operacao) {
+        Temporizadores temporizadoresEtapa = temporizadores(etapa);
+        return Mono.defer(() -> {
+            Timer.Sample amostra = Timer.start(registry);
+            return operacao
+                    .doOnSuccess(valor -> amostra.stop(temporizadoresEtapa.sucesso()))
+                    .doOnError(e -> amostra.stop(temporizadoresEtapa.de(e)));
+        });
+    }
+
+    public void mede(String etapa, Runnable operacao) {
+        mede(etapa, () -> {
+            operacao.run();
+            return null;
+        });
+    }
+
+    private Temporizadores temporizadores(String etapa) {
+        Temporizadores temporizadoresEtapa = temporizadores.get(etapa);
+        if (temporizadoresEtapa == null) {
+            throw new IllegalArgumentException("Etapa do check-in desconhecida: " + etapa);
+        }
+        return temporizadoresEtapa;
+    }
+
+    private Timer registra(String etapa, String resultado) {
+        return Timer.builder("checkin.etapa")
+                .tag("etapa", etapa)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private static Map<CodigoErro, String> geraResultados() {
+        Map<CodigoErro, String> resultados = new EnumMap<>(CodigoErro.class);
+        for (CodigoErro codigo : CodigoErro.values()) {
+            resultados.put(codigo, codigo.getStatus() == 400 ? "400_" + codigo.getMotivo() : String.valueOf(codigo.getStatus()));
+        }
+        return resultados;
+    }
+
+    private record Temporizadores(Timer sucesso, Timer erro, Map<CodigoErro, Timer> rejeicoes) {
+
+        Timer de(Throwable erro) {
+            return erro instanceof DominioException dominio ? rejeicoes.get(dominio.getCodigo()) : this.erro;
+        }
+    }
+
+}
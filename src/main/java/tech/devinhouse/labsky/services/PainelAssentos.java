@@ -0,0 +1,66 @@
+package tech.devinhouse.labsky.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+import tech.devinhouse.labsky.records.response.AssentoResponse;
+import tech.devinhouse.labsky.records.response.PainelAssentosResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Situação de todos os assentos de um voo (livre ou ocupado e fileira de emergência) pronta para envio.
+ * <p>
+ * O JSON é gerado uma única vez por versão do {@link MapaAssentos} do voo e reaproveitado pelas consultas
+ * seguintes, sendo refeito somente depois que um check-in altera a ocupação. O {@code ETag} combina o voo, a
+ * versão do mapa e o instante de inicialização da aplicação, para não coincidir com o de uma execução anterior.
+ */
+@Component
+public class PainelAssentos {
+
+    private final InventarioAssentos inventario;
+    private final ObjectWriter writer;
+    private final String inicializacao = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<String, Painel> paineis = new ConcurrentHashMap<>();
+
+    public PainelAssentos(InventarioAssentos inventario, ObjectMapper objectMapper) {
+        this.inventario = inventario;
+        this.writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, AssentoResponse.class));
+    }
+
+    public PainelAssentosResponse consulta(String codigoVoo) {
+        MapaAssentos mapa = inventario.mapa(codigoVoo);
+        long versao = mapa.versao();
+        Painel atual = paineis.get(codigoVoo);
+        if (atual == null || atual.mapa() != mapa || atual.resposta().versao() != versao) {
+            atual = new Painel(mapa, gera(codigoVoo, mapa, versao));
+            paineis.put(codigoVoo, atual);
+        }
+        return atual.resposta();
+    }
+
+    private PainelAssentosResponse gera(String codigoVoo, MapaAssentos mapa, long versao) {
+        List<String> codigos = mapa.assentos();
+        List<AssentoResponse> assentos = new ArrayList<>(codigos.size());
+        for (int indice = 0; indice < codigos.size(); indice++) {
+            assentos.add(new AssentoResponse(codigos.get(indice), mapa.ocupado(indice), mapa.emergencia(indice)));
+        }
+        String etag = "\"" + inicializacao + "-" + codigoVoo + "-" + Integer.toHexString(System.identityHashCode(mapa)) + "-" + versao + "\"";
+        try {
+            return new PainelAssentosResponse(versao, etag, writer.writeValueAsBytes(assentos));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao gerar o mapa de assentos do voo " + codigoVoo, e);
+        }
+    }
+
+    /**
+     * Mapa de assentos já serializado, junto do mapa que o originou (que muda quando o inventário é recarregado).
+     */
+    private record Painel(MapaAssentos mapa, PainelAssentosResponse resposta) {
+    }
+
+}
@@ -1,88 +1,402 @@
 package tech.devinhouse.labsky.services;
 
-import jakarta.persistence.EntityExistsException;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.devinhouse.labsky.enums.ClasseAssento;
 import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.enums.FormatoManifesto;
+import tech.devinhouse.labsky.exceptions.DominioException;
 import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.models.LancamentoMilhas;
 import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.eventos.EventoConfirmacao;
+import tech.devinhouse.labsky.records.request.AtribuicaoAssentosRequest;
 import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.ConfirmacaoLoteResponse;
 import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
 import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.ImportacaoResponse;
+import tech.devinhouse.labsky.records.response.PaginaPassageirosResponse;
+import tech.devinhouse.labsky.records.response.PainelAssentosResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
 import tech.devinhouse.labsky.repositories.PassageiroRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class PassageiroService {
 
+    private static final int LIMITE_PAGINA = 500;
+
     @Autowired
     private PassageiroRepository repository;
 
-    public List<Passageiro> listaPassageiros() {
-        return repository.findAll();
+    @Autowired
+    private InventarioAssentos inventario;
+
+    @Autowired
+    private CacheConsultaCpf cache;
+
+    @Autowired
+    private RetentativaCheckin retentativa;
+
+    @Autowired
+    private RegistroMilhas registroMilhas;
+
+    @Autowired
+    private AuditoriaCheckin auditoria;
+
+    @Autowired
+    private MetricasCheckin metricas;
+
+    @Autowired
+    private PainelAssentos painelAssentos;
+
+    @Autowired
+    private ImportacaoManifesto importacaoManifesto;
+
+    @Autowired
+    private IdempotenciaCheckin idempotencia;
+
+    @Autowired
+    private IndiceCpf indice;
+
+    @Autowired
+    private TransmissaoCheckin transmissao;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${labsky.voo.padrao:LS1001}")
+    private String vooPadrao;
+
+    public List<PassageiroResponse> listaPassageiros() {
+        return repository.findListagem();
+    }
+
+    public PaginaPassageirosResponse listaPassageirosPaginados(String cursor, int limite, Classificacao classificacao, Boolean checkin) {
+        int tamanho = Math.max(1, Math.min(limite, LIMITE_PAGINA));
+        List<Passageiro> passageiros = repository.findPagina(cursor == null ? "" : cursor, classificacao, checkin, PageRequest.of(0, tamanho));
+        String proximoCursor = passageiros.size() < tamanho ? null : passageiros.get(passageiros.size() - 1).getCpf();
+        return new PaginaPassageirosResponse(passageiros, proximoCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void transmitePassageiros(Classificacao classificacao, Boolean checkin, Consumer<Passageiro> consumidor) {
+        try (Stream<Passageiro> passageiros = repository.streamAll(classificacao, checkin)) {
+            passageiros.forEach(passageiro -> {
+                consumidor.accept(passageiro);
+                entityManager.detach(passageiro);
+            });
+        }
     }
 
     public ConsultaCPFResponse listaPassageiroPeloCpf(String cpf) {
-        var passageiro = repository.findById(cpf).orElseThrow(() -> new EntityNotFoundException("Passageiro não encontrado!"));
-        return new ConsultaCPFResponse(passageiro);
+        return cache.busca(indice.chave(cpf), chave -> {
+            ConsultaCPFResponse consulta = repository.findConsulta(chave).orElseThrow(() -> DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO));
+            indice.inclui(chave);
+            return consulta;
+        });
+    }
+
+    public List<LancamentoMilhas> listaLancamentosMilhas(String cpf) {
+        String chave = indice.chave(cpf);
+        if (!repository.existsById(chave)) {
+            throw DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO);
+        }
+        return registroMilhas.listaLancamentos(chave);
+    }
+
+    public PainelAssentosResponse consultaAssentos(String codigoVoo) {
+        return painelAssentos.consulta(codigoVoo == null ? vooPadrao : codigoVoo);
+    }
+
+    /**
+     * Assina os eventos de check-in dos painéis de embarque, a partir do último evento recebido pelo assinante.
+     */
+    public TransmissaoCheckin.Assinatura assinaConfirmacoes(Long ultimoIdRecebido, String codigoVoo, TransmissaoCheckin.Destino destino) {
+        return transmissao.assina(ultimoIdRecebido, codigoVoo, destino);
+    }
+
+    public ImportacaoResponse importaManifesto(InputStream manifesto, FormatoManifesto formato) throws IOException {
+        return importacaoManifesto.importa(manifesto, formato);
     }
 
     public ConfirmacaoResponse confirmacao(ConfirmacaoRequest request) {
-        Passageiro passageiro = repository.findById(request.cpf()).orElseThrow(() -> new EntityNotFoundException("Passageiro não encontrado!"));
+        return retentativa.executa(() -> realizaConfirmacao(request));
+    }
 
-        if (passageiro.getConfirmacao() != null) {
-            throw new RuntimeException("O passageiro já realizou check-in!");
-        }
+    /**
+     * Check-in com {@code Idempotency-Key}: repetições com a mesma chave recebem a resposta do primeiro check-in.
+     */
+    public ConfirmacaoResponse confirmacao(ConfirmacaoRequest request, String chaveIdempotencia) {
+        return idempotencia.executa(request.cpf(), chaveIdempotencia, () -> confirmacao(request));
+    }
 
-        if (repository.existsPassageiroByConfirmacao_Assento(request.assento().toUpperCase())) {
-            throw new EntityExistsException("O assento já está ocupado por outro passageiro!");
-        }
+    private ConfirmacaoResponse realizaConfirmacao(ConfirmacaoRequest request) {
+        Passageiro passageiro = metricas.mede(MetricasCheckin.BUSCA_PASSAGEIRO, () ->
+                repository.findById(indice.chave(request.cpf())).orElseThrow(() -> DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO)));
+        registraConfirmacao(passageiro, request);
+
+        metricas.mede(MetricasCheckin.GRAVACAO, () -> {
+            try {
+                repository.save(passageiro);
+            } catch (DataIntegrityViolationException e) {
+                // o assento já foi gravado por outra requisição, portanto continua ocupado no mapa
+                throw e;
+            } catch (RuntimeException e) {
+                liberaAssento(passageiro);
+                throw e;
+            }
+        });
+        return metricas.mede(MetricasCheckin.MAPEAMENTO_RESPOSTA, () -> {
+            concluiConfirmacao(passageiro);
+            return new ConfirmacaoResponse(passageiro);
+        });
+    }
 
-        passageiro.setConfirmacao(new Confirmacao(UUID.randomUUID().toString(), request.assento().toUpperCase(), LocalDateTime.now(), request.malasDespachadas()));
-
-        if (passageiro.getClassificacao().equals(Classificacao.VIP)) {
-            passageiro.setMilhas(passageiro.getMilhas() + 100);
-        } else if (passageiro.getClassificacao().equals(Classificacao.OURO)) {
-            passageiro.setMilhas(passageiro.getMilhas() + 80);
-        } else if (passageiro.getClassificacao().equals(Classificacao.PRATA)) {
-            passageiro.setMilhas(passageiro.getMilhas() + 50);
-        } else if (passageiro.getClassificacao().equals(Classificacao.BRONZE)) {
-            passageiro.setMilhas(passageiro.getMilhas() + 30);
-        } else if (passageiro.getClassificacao().equals(Classificacao.ASSOCIADO)) {
-            passageiro.setMilhas(passageiro.getMilhas() + 10);
+    /**
+     * Check-in em lote: os passageiros são lidos com uma única consulta e as confirmações válidas são gravadas em uma
+     * única transação, com o batch do JDBC. Se a gravação do lote falhar, por exemplo porque outro passageiro gravou
+     * um dos assentos ou alterou um dos passageiros, a transação é desfeita e cada confirmação é gravada em sua própria
+     * transação, de modo que só os itens com erro sejam rejeitados.
+     * <p>
+     * Os itens são rejeitados com o status e a mensagem do {@link CodigoErro}. Uma falha de infraestrutura na leitura
+     * e validação do lote é propagada, liberando os assentos já ocupados; na gravação separada de um item, ela o
+     * rejeita com {@link CodigoErro#ERRO_INTERNO} (500), sem expor a mensagem da exceção.
+     */
+    public List<ConfirmacaoLoteResponse> confirmacaoLote(List<ConfirmacaoRequest> requests) {
+        List<ConfirmacaoLoteResponse> resultados = new ArrayList<>(requests.size());
+        List<Passageiro> confirmados = new ArrayList<>(requests.size());
+        List<Integer> itensConfirmados = new ArrayList<>(requests.size());
+        try {
+            transacao.executeWithoutResult(status -> {
+                Map<String, Passageiro> passageiros = new HashMap<>();
+                repository.findAllById(requests.stream().map(request -> indice.chaveOuNula(request.cpf())).filter(Objects::nonNull).distinct().toList())
+                        .forEach(passageiro -> passageiros.put(passageiro.getCpf(), passageiro));
+
+                for (ConfirmacaoRequest request : requests) {
+                    try {
+                        Passageiro passageiro = passageiros.get(indice.chave(request.cpf()));
+                        if (passageiro == null) {
+                            throw DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO);
+                        }
+                        registraConfirmacao(passageiro, request);
+                        confirmados.add(passageiro);
+                        itensConfirmados.add(resultados.size());
+                        resultados.add(ConfirmacaoLoteResponse.sucesso(request, passageiro.getConfirmacao()));
+                    } catch (DominioException e) {
+                        resultados.add(ConfirmacaoLoteResponse.rejeicao(request, e.getCodigo()));
+                    }
+                }
+
+                repository.saveAllAndFlush(confirmados);
+                confirmados.forEach(this::concluiConfirmacao);
+            });
+        } catch (RuntimeException e) {
+            if (resultados.size() < requests.size()) {
+                // a leitura ou a validação do lote falhou antes da gravação
+                confirmados.forEach(this::liberaAssento);
+                throw e;
+            }
+            for (int i = 0; i < confirmados.size(); i++) {
+                int item = itensConfirmados.get(i);
+                resultados.set(item, gravaItem(requests.get(item), confirmados.get(i)));
+            }
         }
+        return resultados;
+    }
 
-        List<String> assentos = List.of("1A", "1B", "1C", "1D", "1E", "1F",
-                "2A", "2B", "2C", "2D", "2E", "2F",
-                "3A", "3B", "3C", "3D", "3E", "3F",
-                "4A", "4B", "4C", "4D", "4E", "4F",
-                "5A", "5B", "5C", "5D", "5E", "5F",
-                "6A", "6B", "6C", "6D", "6E", "6F",
-                "7A", "7B", "7C", "7D", "7E", "7F",
-                "8A", "8B", "8C", "8D", "8E", "8F",
-                "9A", "9B", "9C", "9D", "9E", "9F",
-                "10A", "10B", "10C", "10D", "10E", "10F");
-
-        if (!assentos.contains(passageiro.getConfirmacao().getAssento().toUpperCase())) {
-            throw new EntityNotFoundException("Assento não encontrado!");
+    /**
+     * Check-in do grupo com atribuição automática dos assentos: ocupa, de uma só vez, assentos livres e adjacentes
+     * na fileira mais à frente possível do voo, em vez de o cliente tentar assentos até encontrar um livre. Grupos
+     * maiores que a fileira são divididos em fileiras consecutivas ({@link MapaAssentos#ocupaGrupo}). Só são usadas
+     * as fileiras cujas classes de assento ({@link PoliticaAssentos}) são permitidas a todos os passageiros.
+     * Se a gravação falhar, os assentos são liberados, exceto o que outro passageiro já gravou no banco de dados, e
+     * os conflitos de versão são repetidos como no check-in individual ({@link RetentativaCheckin}).
+     */
+    public List<ConfirmacaoLoteResponse> confirmacaoAutomatica(AtribuicaoAssentosRequest request) {
+        return retentativa.executa(() -> realizaConfirmacaoAutomatica(request));
+    }
+
+    private List<ConfirmacaoLoteResponse> realizaConfirmacaoAutomatica(AtribuicaoAssentosRequest request) {
+        List<Passageiro> ocupados = new ArrayList<>();
+        try {
+            return transacao.execute(status -> {
+                List<String> cpfs = request.cpfs().stream().map(indice::chave).distinct().toList();
+                Map<String, Passageiro> encontrados = new HashMap<>();
+                repository.findAllById(cpfs).forEach(passageiro -> encontrados.put(passageiro.getCpf(), passageiro));
+
+                List<Passageiro> passageiros = new ArrayList<>(cpfs.size());
+                for (String cpf : cpfs) {
+                    Passageiro passageiro = encontrados.get(cpf);
+                    if (passageiro == null) {
+                        throw DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO);
+                    }
+                    if (passageiro.getConfirmacao() != null) {
+                        throw DominioException.de(CodigoErro.CHECKIN_DUPLICADO);
+                    }
+                    if (!passageiros.isEmpty() && !Objects.equals(passageiro.getCodigoVoo(), passageiros.get(0).getCodigoVoo())) {
+                        throw DominioException.de(CodigoErro.VOOS_DIFERENTES);
+                    }
+                    passageiros.add(passageiro);
+                }
+
+                MapaAssentos mapa = inventario.mapa(passageiros.get(0).getCodigoVoo());
+                LocalDate hoje = LocalDate.now();
+                int classesPermitidas = passageiros.stream()
+                        .mapToInt(passageiro -> mapa.politica().classesPermitidas(passageiro, request.malasDespachadas(), hoje))
+                        .reduce(ClasseAssento.TODAS, (a, b) -> a & b);
+                int[] indices = metricas.mede(MetricasCheckin.OCUPACAO_ASSENTO, () -> mapa.ocupaGrupo(passageiros.size(), classesPermitidas));
+                if (indices.length == 0) {
+                    throw DominioException.de(CodigoErro.ASSENTOS_INDISPONIVEIS);
+                }
+
+                List<ConfirmacaoLoteResponse> resultados = new ArrayList<>(passageiros.size());
+                LocalDateTime dataHora = LocalDateTime.now();
+                for (int i = 0; i < passageiros.size(); i++) {
+                    Passageiro passageiro = passageiros.get(i);
+                    Confirmacao confirmacao = new Confirmacao(UUID.randomUUID().toString(), mapa.assentos().get(indices[i]), dataHora, request.malasDespachadas());
+                    passageiro.setConfirmacao(confirmacao);
+                    ocupados.add(passageiro);
+                    resultados.add(new ConfirmacaoLoteResponse(passageiro.getCpf(), confirmacao.getAssento(), 200, confirmacao.getEticket(), dataHora, null));
+                }
+
+                repository.saveAllAndFlush(passageiros);
+                passageiros.forEach(this::concluiConfirmacao);
+                return resultados;
+            });
+        } catch (DataIntegrityViolationException e) {
+            liberaAssentosNaoGravados(ocupados);
+            throw e;
+        } catch (RuntimeException e) {
+            ocupados.forEach(this::liberaAssento);
+            throw e;
         }
+    }
+
+    /**
+     * Valida as regras de check-in, ocupa o assento no mapa de assentos do voo do passageiro e registra a
+     * confirmação no passageiro. O assento deve ser liberado com {@link #liberaAssento} caso a confirmação não
+     * seja salva.
+     */
+    private void registraConfirmacao(Passageiro passageiro, ConfirmacaoRequest request) {
+        String assento = request.assento().toUpperCase();
+        MapaAssentos mapa = inventario.mapa(passageiro.getCodigoVoo());
+        int indice = metricas.mede(MetricasCheckin.VALIDACAO_REGRAS, () -> RegrasCheckin.valida(passageiro, request, mapa, assento));
+        metricas.mede(MetricasCheckin.OCUPACAO_ASSENTO, () -> RegrasCheckin.ocupa(mapa, indice));
+
+        passageiro.setConfirmacao(new Confirmacao(UUID.randomUUID().toString(), assento, LocalDateTime.now(), request.malasDespachadas()));
+    }
 
-        if ((passageiro.getConfirmacao().getAssento().contains("5") || passageiro.getConfirmacao().getAssento().contains("6")) && LocalDate.now().getYear() - passageiro.getDataNascimento().getYear() < 18) {
-            throw new RuntimeException("O passageiro é menor de idade e não pode sentar nas fileiras de emergência (5 e 6)!");
+    /**
+     * Grava a confirmação de um item do lote em sua própria transação, depois que a gravação do lote falhou. O
+     * passageiro é lido novamente, porque a transação desfeita pode ter deixado a versão lida desatualizada, e os
+     * conflitos de versão são repetidos como no check-in individual.
+     */
+    private ConfirmacaoLoteResponse gravaItem(ConfirmacaoRequest request, Passageiro lido) {
+        Confirmacao confirmacao = lido.getConfirmacao();
+        try {
+            retentativa.executa(() -> transacao.execute(status -> {
+                Passageiro passageiro = repository.findById(lido.getCpf()).orElseThrow(() -> DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO));
+                if (passageiro.getConfirmacao() != null) {
+                    throw DominioException.de(CodigoErro.CHECKIN_DUPLICADO);
+                }
+                passageiro.setConfirmacao(confirmacao);
+                repository.saveAndFlush(passageiro);
+                concluiConfirmacao(passageiro);
+                return passageiro;
+            }));
+            return ConfirmacaoLoteResponse.sucesso(request, confirmacao);
+        } catch (DominioException e) {
+            // ASSENTO_OCUPADO vem da restrição única: o assento já foi gravado por outro passageiro e continua ocupado no mapa
+            if (e.getCodigo() != CodigoErro.ASSENTO_OCUPADO) {
+                liberaAssento(lido);
+            }
+            return ConfirmacaoLoteResponse.rejeicao(request, e.getCodigo());
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar o check-in do passageiro {} do lote", lido.getCpf(), e);
+            liberaAssento(lido);
+            return ConfirmacaoLoteResponse.rejeicao(request, CodigoErro.ERRO_INTERNO);
         }
+    }
 
-        if ((passageiro.getConfirmacao().getAssento().contains("5") || passageiro.getConfirmacao().getAssento().contains("6")) && !request.malasDespachadas()) {
-            throw new RuntimeException("O passageiro deve obrigatoriamente despachar suas malas nas fileiras de emergência (5 e 6)!");
+    /**
+     * Libera os assentos do grupo depois de uma violação da restrição única do assento: o assento gravado por outro
+     * passageiro continua ocupado no mapa, como no check-in individual, e os demais assentos do grupo são liberados.
+     */
+    private void liberaAssentosNaoGravados(List<Passageiro> passageiros) {
+        if (passageiros.isEmpty()) {
+            return;
         }
+        Set<String> gravados = new HashSet<>(repository.findAssentosOcupados(passageiros.get(0).getCodigoVoo()));
+        passageiros.stream()
+                .filter(passageiro -> !gravados.contains(passageiro.getConfirmacao().getAssento()))
+                .forEach(this::liberaAssento);
+    }
+
+    private void liberaAssento(Passageiro passageiro) {
+        MapaAssentos mapa = inventario.mapa(passageiro.getCodigoVoo());
+        mapa.libera(mapa.indice(passageiro.getConfirmacao().getAssento()));
+    }
+
+    /**
+     * Lança as milhas do check-in no extrato e publica os eventos de auditoria e dos painéis de embarque, após a
+     * confirmação ter sido salva. Dentro de uma transação, isso só acontece depois do commit, para que um lote
+     * desfeito não lance milhas nem publique eventos de check-ins que não foram gravados.
+     */
+    private void concluiConfirmacao(Passageiro passageiro) {
+        Confirmacao confirmacao = passageiro.getConfirmacao();
+        aposCommit(() -> {
+            registroMilhas.registra(passageiro.getCpf(), AcumuloMilhas.milhasPorCheckin(passageiro.getClassificacao()), confirmacao.getEticket());
+            auditoria.publica(passageiro.getCpf(), confirmacao.getEticket(), confirmacao.getAssento(), confirmacao.getDataHoraConfirmacao());
+        });
+        transmissao.publica(new EventoConfirmacao(passageiro.getCodigoVoo(), passageiro.getCpf(), passageiro.getNome(), confirmacao.getAssento(),
+                confirmacao.getDataHoraConfirmacao(), inventario.mapa(passageiro.getCodigoVoo()).versao()));
+    }
 
-        repository.save(passageiro);
-        System.out.println("Confirmação feita pelo passageiro de CPF " + passageiro.getCpf() + " com e-ticket " + passageiro.getConfirmacao().getEticket());
-        return new ConfirmacaoResponse(passageiro);
+    /**
+     * Executa a ação depois do commit da transação em andamento, ou imediatamente se não houver transação.
+     */
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
     }
 
 }
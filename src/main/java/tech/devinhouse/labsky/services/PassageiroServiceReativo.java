@@ -0,0 +1,234 @@
+package tech.devinhouse.labsky.services;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.eventos.EventoConfirmacao;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PainelAssentosResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementação não bloqueante das consultas e do check-in, ativada com o perfil {@code reativo}.
+ * <p>
+ * Os passageiros são lidos e o check-in é gravado pelo R2DBC, no mesmo banco H2 usado pelo JPA. As regras de
+ * check-in ({@link RegrasCheckin}), os mapas de assentos, o cache de consultas por CPF, o extrato de milhas e a
+ * auditoria são os mesmos da implementação bloqueante, assim como a conversão do CPF informado na chave do
+ * passageiro pelo {@link IndiceCpf}. A gravação do check-in é um {@code UPDATE} condicionado à versão lida do
+ * passageiro, equivalente ao bloqueio otimista do JPA; os conflitos de versão são repetidos e os conflitos de assento
+ * convertidos pela mesma {@link RetentativaCheckin}, e as etapas do check-in são medidas pelos mesmos temporizadores
+ * ({@link MetricasCheckin}).
+ */
+@Service
+@Profile("reativo")
+public class PassageiroServiceReativo {
+
+    // a classificação é convertida em texto porque o Hibernate pode criar a coluna com o tipo enum do H2
+    private static final String COLUNAS = """
+            cpf, nome, data_nascimento, CAST(classificacao AS VARCHAR) AS classificacao, milhas, voo_codigo,
+            eticket, assento, data_hora_confirmacao, malas_despachadas, versao""";
+    private static final String LISTAGEM = "SELECT " + COLUNAS + " FROM passageiros ORDER BY cpf";
+    private static final String BUSCA = "SELECT " + COLUNAS + " FROM passageiros WHERE cpf = :cpf";
+    private static final String CONFIRMACAO = """
+            UPDATE passageiros
+            SET eticket = :eticket, assento = :assento, data_hora_confirmacao = :dataHora, malas_despachadas = :malas, versao = versao + 1
+            WHERE cpf = :cpf AND versao = :versao AND eticket IS NULL""";
+
+    private final DatabaseClient databaseClient;
+    private final InventarioAssentos inventario;
+    private final PainelAssentos painelAssentos;
+    private final CacheConsultaCpf cache;
+    private final IndiceCpf indice;
+    private final RegistroMilhas registroMilhas;
+    private final AuditoriaCheckin auditoria;
+    private final IdempotenciaCheckin idempotencia;
+    private final RetentativaCheckin retentativa;
+    private final MetricasCheckin metricas;
+    private final TransmissaoCheckin transmissao;
+    private final int limiteEventosPendentes;
+    private final String vooPadrao;
+
+    public PassageiroServiceReativo(DatabaseClient databaseClient, InventarioAssentos inventario, PainelAssentos painelAssentos, CacheConsultaCpf cache,
+                                    IndiceCpf indice, RegistroMilhas registroMilhas, AuditoriaCheckin auditoria, IdempotenciaCheckin idempotencia,
+                                    RetentativaCheckin retentativa, MetricasCheckin metricas, TransmissaoCheckin transmissao, @Value("${labsky.transmissao.historico:4096}") int limiteEventosPendentes,
+                                    @Value("${labsky.voo.padrao:LS1001}") String vooPadrao) {
+        this.databaseClient = databaseClient;
+        this.inventario = inventario;
+        this.painelAssentos = painelAssentos;
+        this.cache = cache;
+        this.indice = indice;
+        this.registroMilhas = registroMilhas;
+        this.auditoria = auditoria;
+        this.idempotencia = idempotencia;
+        this.retentativa = retentativa;
+        this.metricas = metricas;
+        this.transmissao = transmissao;
+        this.limiteEventosPendentes = limiteEventosPendentes;
+        this.vooPadrao = vooPadrao;
+    }
+
+    public Flux<PassageiroResponse> listaPassageiros() {
+        return databaseClient.sql(LISTAGEM)
+                .map(linha -> new PassageiroResponse(passageiro(linha)))
+                .all();
+    }
+
+    public Mono<ConsultaCPFResponse> listaPassageiroPeloCpf(String cpf) {
+        return Mono.defer(() -> {
+            String chave = indice.chave(cpf);
+            ConsultaCPFResponse consulta = cache.consulta(chave);
+            if (consulta != null) {
+                return Mono.just(consulta);
+            }
+            return buscaPassageiro(chave)
+                    .map(ConsultaCPFResponse::new)
+                    .doOnNext(cache::atualiza)
+                    .doOnNext(encontrada -> indice.inclui(chave));
+        });
+    }
+
+    public Mono<PainelAssentosResponse> consultaAssentos(String codigoVoo) {
+        String codigo = codigoVoo == null ? vooPadrao : codigoVoo;
+        return mapa(codigo).map(mapa -> painelAssentos.consulta(codigo));
+    }
+
+    public Mono<ConfirmacaoResponse> confirmacao(ConfirmacaoRequest request) {
+        return retentativa.executaReativo(() -> metricas
+                .medeReativo(MetricasCheckin.BUSCA_PASSAGEIRO, Mono.defer(() -> buscaPassageiro(indice.chave(request.cpf()))))
+                .flatMap(passageiro -> mapa(passageiro.getCodigoVoo())
+                        .flatMap(mapa -> realizaConfirmacao(passageiro, request, mapa))));
+    }
+
+    /**
+     * Check-in com {@code Idempotency-Key}: repetições com a mesma chave recebem a resposta do primeiro check-in.
+     */
+    public Mono<ConfirmacaoResponse> confirmacao(ConfirmacaoRequest request, String chaveIdempotencia) {
+        return idempotencia.executaReativo(request.cpf(), chaveIdempotencia, () -> confirmacao(request));
+    }
+
+    /**
+     * Eventos de check-in dos painéis de embarque, como na implementação bloqueante. Se o cliente não consumir os
+     * eventos e mais de {@code labsky.transmissao.historico} ficarem pendentes, a conexão é encerrada.
+     */
+    public Flux<ServerSentEvent<String>> transmiteConfirmacoes(Long ultimoIdRecebido, String codigoVoo) {
+        return Flux.<ServerSentEvent<String>>create(sink -> {
+            TransmissaoCheckin.Assinatura assinatura = transmissao.assina(ultimoIdRecebido, codigoVoo, new TransmissaoCheckin.Destino() {
+                @Override
+                public void envia(List<TransmissaoCheckin.Evento> eventos, boolean lacuna) {
+                    if (lacuna) {
+                        sink.next(ServerSentEvent.builder("").event("lacuna").build());
+                    }
+                    for (TransmissaoCheckin.Evento evento : eventos) {
+                        sink.next(ServerSentEvent.builder(evento.json()).id(String.valueOf(evento.id())).event("confirmacao").build());
+                    }
+                }
+
+                @Override
+                public void pulso() {
+                    sink.next(ServerSentEvent.<String>builder().comment("pulso").build());
+                }
+
+                @Override
+                public void encerra() {
+                    sink.complete();
+                }
+            });
+            sink.onDispose(assinatura::cancela);
+        }).onBackpressureBuffer(limiteEventosPendentes, BufferOverflowStrategy.ERROR);
+    }
+
+    /**
+     * Valida as regras e ocupa o assento no mapa, em memória, e só então grava a confirmação. Se a gravação
+     * falhar, o assento é liberado no mapa, exceto quando o banco de dados já tiver o assento ocupado por outra
+     * requisição. Se nenhuma linha for alterada, a versão do passageiro mudou desde a leitura e o check-in é repetido
+     * pela {@link RetentativaCheckin}.
+     */
+    private Mono<ConfirmacaoResponse> realizaConfirmacao(Passageiro passageiro, ConfirmacaoRequest request, MapaAssentos mapa) {
+        String assento = request.assento().toUpperCase();
+        int indice;
+        try {
+            indice = metricas.mede(MetricasCheckin.VALIDACAO_REGRAS, () -> RegrasCheckin.valida(passageiro, request, mapa, assento));
+            metricas.mede(MetricasCheckin.OCUPACAO_ASSENTO, () -> RegrasCheckin.ocupa(mapa, indice));
+        } catch (DominioException e) {
+            return Mono.error(e);
+        }
+
+        Confirmacao confirmacao = new Confirmacao(UUID.randomUUID().toString(), assento, LocalDateTime.now(), request.malasDespachadas());
+        Mono<Confirmacao> gravacao = databaseClient.sql(CONFIRMACAO)
+                .bind("eticket", confirmacao.getEticket())
+                .bind("assento", confirmacao.getAssento())
+                .bind("dataHora", confirmacao.getDataHoraConfirmacao())
+                .bind("malas", confirmacao.getMalasDespachadas())
+                .bind("cpf", passageiro.getCpf())
+                .bind("versao", passageiro.getVersao())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(linhas -> linhas == 1 ? Mono.just(confirmacao)
+                        : Mono.<Confirmacao>error(() -> new OptimisticLockingFailureException("A versão do passageiro foi alterada por outra requisição")))
+                .doOnError(e -> !(e instanceof DataIntegrityViolationException), e -> mapa.libera(indice));
+        return metricas.medeReativo(MetricasCheckin.GRAVACAO, gravacao)
+                .map(gravada -> metricas.mede(MetricasCheckin.MAPEAMENTO_RESPOSTA, () -> {
+                    registroMilhas.registra(passageiro.getCpf(), AcumuloMilhas.milhasPorCheckin(passageiro.getClassificacao()), gravada.getEticket());
+                    auditoria.publica(passageiro.getCpf(), gravada.getEticket(), gravada.getAssento(), gravada.getDataHoraConfirmacao());
+                    transmissao.publica(new EventoConfirmacao(passageiro.getCodigoVoo(), passageiro.getCpf(), passageiro.getNome(),
+                            gravada.getAssento(), gravada.getDataHoraConfirmacao(), mapa.versao()));
+                    return new ConfirmacaoResponse(gravada);
+                }));
+    }
+
+    private Mono<Passageiro> buscaPassageiro(String cpf) {
+        return databaseClient.sql(BUSCA)
+                .bind("cpf", cpf)
+                .map(PassageiroServiceReativo::passageiro)
+                .one()
+                .switchIfEmpty(Mono.error(() -> DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO)));
+    }
+
+    /**
+     * Retorna o mapa de assentos do voo. A primeira montagem do mapa consulta o banco de dados pelo JPA e por
+     * isso é feita fora das threads do event loop.
+     */
+    private Mono<MapaAssentos> mapa(String codigoVoo) {
+        MapaAssentos mapa = codigoVoo == null ? null : inventario.mapaCarregado(codigoVoo);
+        if (mapa != null) {
+            return Mono.just(mapa);
+        }
+        return Mono.fromCallable(() -> inventario.mapa(codigoVoo)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Passageiro passageiro(Readable linha) {
+        String classificacao = linha.get("classificacao", String.class);
+        Passageiro passageiro = new Passageiro(linha.get("cpf", String.class), linha.get("nome", String.class), linha.get("data_nascimento", LocalDate.class),
+                classificacao == null ? null : Classificacao.valueOf(classificacao), linha.get("milhas", Integer.class));
+        passageiro.setCodigoVoo(linha.get("voo_codigo", String.class));
+        passageiro.setVersao(linha.get("versao", Long.class));
+        String eticket = linha.get("eticket", String.class);
+        if (eticket != null) {
+            passageiro.setConfirmacao(new Confirmacao(eticket, linha.get("assento", String.class), linha.get("data_hora_confirmacao", LocalDateTime.class),
+                    linha.get("malas_despachadas", Boolean.class)));
+        }
+        return passageiro;
+    }
+
+}
@@ -0,0 +1,159 @@
+package tech.devinhouse.labsky.services;
+
+import tech.devinhouse.labsky.enums.ClasseAssento;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.models.Passageiro;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Política de assentos: as restrições de cada {@link ClasseAssento} (idade mínima, malas despachadas e
+ * classificações do passageiro permitidas) e as fileiras dianteiras da aeronave.
+ * <p>
+ * A quantidade de fileiras dianteiras pode ser diferente para cada configuração de aeronave ({@link #aeronave}, por
+ * exemplo "30xABCDEF"); as aeronaves sem configuração própria usam a quantidade padrão. A política da aeronave é
+ * escolhida uma única vez, quando o mapa de assentos do voo é montado ({@link #daAeronave}).
+ * <p>
+ * A política é compilada no {@link MapaAssentos} como a máscara de classe de cada fileira. No check-in, as classes
+ * permitidas ao passageiro são calculadas uma única vez ({@link #classesPermitidas}) e a validação de cada assento é
+ * uma operação de bits entre as duas máscaras. O motivo da recusa só é apurado quando o assento não é permitido.
+ */
+public class PoliticaAssentos {
+
+    /**
+     * Política padrão: fileiras de emergência somente para maiores de 18 anos com as malas despachadas, sem
+     * fileiras dianteiras.
+     */
+    public static final PoliticaAssentos PADRAO = new PoliticaAssentos(0,
+            Map.of(ClasseAssento.EMERGENCIA, new Restricao(18, true, EnumSet.allOf(Classificacao.class))));
+
+    private final int fileirasDianteiras;
+    private final Map<String, Integer> fileirasDianteirasPorAeronave;
+    private final Restricao[] restricoes = new Restricao[ClasseAssento.values().length];
+    private final int[] classificacoes = new int[ClasseAssento.values().length];
+
+    /**
+     * @param fileirasDianteiras quantidade de fileiras, a partir da primeira, da classe {@link ClasseAssento#DIANTEIRA}
+     * @param restricoes restrições por classe; as classes ausentes não têm restrições
+     */
+    public PoliticaAssentos(int fileirasDianteiras, Map<ClasseAssento, Restricao> restricoes) {
+        this(fileirasDianteiras, Map.of(), restricoes);
+    }
+
+    /**
+     * @param fileirasDianteirasPorAeronave quantidade de fileiras dianteiras de cada configuração de aeronave
+     *                                      ({@link #aeronave}), no lugar de {@code fileirasDianteiras}
+     */
+    public PoliticaAssentos(int fileirasDianteiras, Map<String, Integer> fileirasDianteirasPorAeronave, Map<ClasseAssento, Restricao> restricoes) {
+        this.fileirasDianteiras = fileirasDianteiras;
+        this.fileirasDianteirasPorAeronave = Map.copyOf(fileirasDianteirasPorAeronave);
+        Map<ClasseAssento, Restricao> porClasse = new EnumMap<>(ClasseAssento.class);
+        porClasse.putAll(restricoes);
+        for (ClasseAssento classe : ClasseAssento.values()) {
+            Restricao restricao = porClasse.getOrDefault(classe, Restricao.NENHUMA);
+            this.restricoes[classe.ordinal()] = restricao;
+            for (Classificacao classificacao : restricao.classificacoes()) {
+                this.classificacoes[classe.ordinal()] |= 1 << classificacao.ordinal();
+            }
+        }
+    }
+
+    /**
+     * Chave da configuração da aeronave: a quantidade de fileiras e as letras das colunas, por exemplo "30xABCDEF".
+     */
+    public static String aeronave(int fileiras, String colunas) {
+        return fileiras + "x" + colunas.toUpperCase();
+    }
+
+    /**
+     * Retorna a política com as fileiras dianteiras da configuração da aeronave, ou esta política se a aeronave não
+     * tiver configuração própria.
+     */
+    public PoliticaAssentos daAeronave(int fileiras, String colunas) {
+        Integer dianteiras = fileirasDianteirasPorAeronave.get(aeronave(fileiras, colunas));
+        if (dianteiras == null || dianteiras == fileirasDianteiras) {
+            return this;
+        }
+        Map<ClasseAssento, Restricao> porClasse = new EnumMap<>(ClasseAssento.class);
+        for (ClasseAssento classe : ClasseAssento.values()) {
+            porClasse.put(classe, restricoes[classe.ordinal()]);
+        }
+        return new PoliticaAssentos(dianteiras, porClasse);
+    }
+
+    /**
+     * Classe da fileira (a partir de 1): as fileiras de emergência têm precedência sobre as dianteiras.
+     */
+    public ClasseAssento classe(int fileira, boolean emergencia) {
+        if (emergencia) {
+            return ClasseAssento.EMERGENCIA;
+        }
+        return fileira <= fileirasDianteiras ? ClasseAssento.DIANTEIRA : ClasseAssento.PADRAO;
+    }
+
+    /**
+     * Calcula as classes de assento que o passageiro pode ocupar.
+     *
+     * @return a máscara com o {@link ClasseAssento#bit() bit} de cada classe permitida
+     */
+    public int classesPermitidas(Passageiro passageiro, boolean malasDespachadas, LocalDate hoje) {
+        int idade = idade(passageiro.getDataNascimento(), hoje);
+        int classificacao = 1 << classificacao(passageiro).ordinal();
+        int permitidas = 0;
+        for (int i = 0; i < restricoes.length; i++) {
+            Restricao restricao = restricoes[i];
+            if ((restricao.idadeMinima() <= 0 || idade >= restricao.idadeMinima())
+                    && (malasDespachadas || !restricao.malasDespachadas())
+                    && (classificacoes[i] & classificacao) != 0) {
+                permitidas |= 1 << i;
+            }
+        }
+        return permitidas;
+    }
+
+    /**
+     * Retorna o erro da primeira restrição da classe que o passageiro não atende.
+     */
+    public CodigoErro motivo(ClasseAssento classe, Passageiro passageiro, boolean malasDespachadas, LocalDate hoje) {
+        Restricao restricao = restricoes[classe.ordinal()];
+        if (restricao.idadeMinima() > 0 && idade(passageiro.getDataNascimento(), hoje) < restricao.idadeMinima()) {
+            return classe == ClasseAssento.EMERGENCIA ? CodigoErro.MENOR_IDADE_EMERGENCIA : CodigoErro.IDADE_MINIMA_ASSENTO;
+        }
+        if (restricao.malasDespachadas() && !malasDespachadas) {
+            return classe == ClasseAssento.EMERGENCIA ? CodigoErro.MALAS_EMERGENCIA : CodigoErro.MALAS_ASSENTO;
+        }
+        return CodigoErro.CLASSIFICACAO_ASSENTO;
+    }
+
+    /**
+     * Idade do passageiro em anos completos na data informada, ou -1 se a data de nascimento não for conhecida.
+     */
+    static int idade(LocalDate dataNascimento, LocalDate hoje) {
+        return dataNascimento == null ? -1 : (int) ChronoUnit.YEARS.between(dataNascimento, hoje);
+    }
+
+    private static Classificacao classificacao(Passageiro passageiro) {
+        return passageiro.getClassificacao() == null ? Classificacao.ASSOCIADO : passageiro.getClassificacao();
+    }
+
+    /**
+     * Restrições de uma classe de assento.
+     *
+     * @param idadeMinima idade mínima em anos completos; zero para nenhuma
+     * @param malasDespachadas se o passageiro deve despachar as malas
+     * @param classificacoes classificações do passageiro permitidas (o passageiro sem classificação é
+     *                       {@link Classificacao#ASSOCIADO})
+     */
+    public record Restricao(int idadeMinima, boolean malasDespachadas, Set<Classificacao> classificacoes) {
+
+        public static final Restricao NENHUMA = new Restricao(0, false, EnumSet.allOf(Classificacao.class));
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.devinhouse.labsky.models.LancamentoMilhas;
+import tech.devinhouse.labsky.repositories.LancamentoMilhasRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Extrato de milhas com gravação em segundo plano.
+ * <p>
+ * O check-in apenas enfileira o lançamento de milhas. Periodicamente os lançamentos pendentes são gravados em
+ * lotes na tabela {@code lancamentos_milhas} e, na mesma transação, o saldo {@code milhas} de cada passageiro é
+ * conciliado com a soma dos lançamentos do lote.
+ * <p>
+ * A fila tem capacidade fixa ({@code labsky.milhas.capacidade}) e o seu tamanho é publicado na métrica
+ * {@code milhas.pendentes}. Se a gravação de um lote falhar, os lançamentos do lote são gravados um a um, para que um
+ * lançamento inválido não impeça a gravação dos demais; os que falharem voltam para a fila. Os lançamentos que não
+ * couberem na fila, que falharem {@code labsky.milhas.tentativas} vezes ou que continuarem pendentes no encerramento
+ * da aplicação são gravados no logger {@code milhas.nao-gravados} (arquivo configurado em {@code logback-spring.xml}),
+ * para serem lançados novamente, e contados na métrica {@code milhas.descartados}.
+ */
+@Slf4j
+@Component
+public class RegistroMilhas {
+
+    private static final Logger NAO_GRAVADOS = LoggerFactory.getLogger("milhas.nao-gravados");
+
+    private final BlockingQueue<Pendente> pendentes;
+
+    private final LancamentoMilhasRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final CacheConsultaCpf cache;
+    private final int tamanhoLote;
+    private final int tentativas;
+    private final Counter descartadosFilaCheia;
+    private final Counter descartadosTentativas;
+    private final Counter descartadosEncerramento;
+
+    public RegistroMilhas(LancamentoMilhasRepository repository, JdbcTemplate jdbcTemplate, TransactionTemplate transacao, CacheConsultaCpf cache,
+                          MeterRegistry registry,
+                          @Value("${labsky.milhas.tamanho-lote:500}") int tamanhoLote,
+                          @Value("${labsky.milhas.capacidade:100000}") int capacidade,
+                          @Value("${labsky.milhas.tentativas:10}") int tentativas) {
+        this.pendentes = new ArrayBlockingQueue<>(capacidade);
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = transacao;
+        this.cache = cache;
+        this.tamanhoLote = tamanhoLote;
+        this.tentativas = tentativas;
+        this.descartadosFilaCheia = Counter.builder("milhas.descartados").tag("motivo", "fila_cheia").register(registry);
+        this.descartadosTentativas = Counter.builder("milhas.descartados").tag("motivo", "tentativas").register(registry);
+        this.descartadosEncerramento = Counter.builder("milhas.descartados").tag("motivo", "encerramento").register(registry);
+        Gauge.builder("milhas.pendentes", pendentes, BlockingQueue::size).register(registry);
+    }
+
+    public void registra(String cpf, int milhas, String eticket) {
+        LancamentoMilhas lancamento = new LancamentoMilhas(cpf, milhas, eticket, LocalDateTime.now());
+        if (!pendentes.offer(new Pendente(lancamento))) {
+            descarta(lancamento, descartadosFilaCheia);
+        }
+    }
+
+    public List<LancamentoMilhas> listaLancamentos(String cpf) {
+        return repository.findByCpfOrderByDataHora(cpf);
+    }
+
+    @Scheduled(fixedDelayString = "${labsky.milhas.intervalo-gravacao:1000}")
+    public void grava() {
+        while (!pendentes.isEmpty() && gravaLote()) {
+            // grava os lotes até esvaziar a fila ou ocorrer uma falha
+        }
+    }
+
+    @PreDestroy
+    public void encerra() {
+        grava();
+        Pendente pendente;
+        while ((pendente = pendentes.poll()) != null) {
+            descarta(pendente.lancamento, descartadosEncerramento);
+        }
+    }
+
+    /**
+     * @return false se algum lançamento do lote não foi gravado, para que a gravação seja retomada na próxima execução
+     */
+    private boolean gravaLote() {
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        pendentes.drainTo(lote, tamanhoLote);
+        if (lote.isEmpty()) {
+            return true;
+        }
+        try {
+            gravaLancamentos(lote);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar {} lançamentos de milhas, os lançamentos serão gravados um a um", lote.size(), e);
+        }
+
+        boolean gravados = true;
+        for (Pendente pendente : lote) {
+            try {
+                gravaLancamentos(List.of(pendente));
+            } catch (RuntimeException e) {
+                gravados = false;
+                falha(pendente);
+            }
+        }
+        return gravados;
+    }
+
+    private void gravaLancamentos(List<Pendente> lote) {
+        List<LancamentoMilhas> lancamentos = new ArrayList<>(lote.size());
+        Map<String, Integer> saldos = new HashMap<>();
+        for (Pendente pendente : lote) {
+            // a transação desfeita pode ter atribuído o id do lançamento
+            pendente.lancamento.setId(null);
+            lancamentos.add(pendente.lancamento);
+            saldos.merge(pendente.lancamento.getCpf(), pendente.lancamento.getMilhas(), Integer::sum);
+        }
+        List<Object[]> conciliacoes = new ArrayList<>(saldos.size());
+        saldos.forEach((cpf, milhas) -> conciliacoes.add(new Object[]{milhas, cpf}));
+
+        transacao.executeWithoutResult(status -> {
+            repository.saveAll(lancamentos);
+            jdbcTemplate.batchUpdate("UPDATE passageiros SET milhas = COALESCE(milhas, 0) + ?, versao = versao + 1 WHERE cpf = ?", conciliacoes);
+        });
+        saldos.keySet().forEach(cache::invalida);
+    }
+
+    private void falha(Pendente pendente) {
+        if (++pendente.tentativas >= tentativas) {
+            log.error("O lançamento de milhas do e-ticket {} não foi gravado após {} tentativas", pendente.lancamento.getEticket(), pendente.tentativas);
+            descarta(pendente.lancamento, descartadosTentativas);
+        } else if (!pendentes.offer(pendente)) {
+            descarta(pendente.lancamento, descartadosFilaCheia);
+        }
+    }
+
+    private static void descarta(LancamentoMilhas lancamento, Counter contador) {
+        contador.increment();
+        NAO_GRAVADOS.info("{};{};{};{}", lancamento.getDataHora(), lancamento.getCpf(), lancamento.getMilhas(), lancamento.getEticket());
+    }
+
+    private static final class Pendente {
+
+        private final LancamentoMilhas lancamento;
+        private int tentativas;
+
+        private Pendente(LancamentoMilhas lancamento) {
+            this.lancamento = lancamento;
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package tech.devinhouse.labsky.services;
+
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+
+import java.time.LocalDate;
+
+/**
+ * Regras de negócio do check-in, compartilhadas pela implementação bloqueante ({@link PassageiroService}) e pela
+ * reativa ({@link PassageiroServiceReativo}).
+ */
+public final class RegrasCheckin {
+
+    private RegrasCheckin() {
+    }
+
+    /**
+     * Valida se o passageiro pode realizar o check-in no assento informado.
+     *
+     * @return o índice do assento no mapa de assentos do voo
+     * @throws DominioException se alguma regra for violada
+     */
+    public static int valida(Passageiro passageiro, ConfirmacaoRequest request, MapaAssentos mapa, String assento) {
+        if (passageiro.getConfirmacao() != null) {
+            throw DominioException.de(CodigoErro.CHECKIN_DUPLICADO);
+        }
+
+        int indice = mapa.indice(assento);
+
+        if (indice < 0) {
+            throw DominioException.de(CodigoErro.ASSENTO_NAO_ENCONTRADO);
+        }
+
+        LocalDate hoje = LocalDate.now();
+        PoliticaAssentos politica = mapa.politica();
+        if (!mapa.permitido(indice, politica.classesPermitidas(passageiro, request.malasDespachadas(), hoje))) {
+            throw DominioException.de(politica.motivo(mapa.classe(indice), passageiro, request.malasDespachadas(), hoje));
+        }
+
+        return indice;
+    }
+
+    /**
+     * Ocupa o assento no mapa de assentos do voo.
+     *
+     * @throws DominioException com o código {@link CodigoErro#ASSENTO_OCUPADO} se o assento já estiver ocupado
+     */
+    public static void ocupa(MapaAssentos mapa, int indice) {
+        if (mapa.ocupado(indice) || !mapa.ocupa(indice)) {
+            throw DominioException.de(CodigoErro.ASSENTO_OCUPADO);
+        }
+    }
+
+}
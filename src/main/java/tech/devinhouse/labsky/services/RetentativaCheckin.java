@@ -0,0 +1,73 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+
+import java.util.function.Supplier;
+
+/**
+ * Executa o check-in sem bloqueios, tratando os conflitos detectados pelo banco de dados.
+ * <p>
+ * Violações da restrição única do assento são convertidas no erro 409 de assento ocupado. Falhas de bloqueio
+ * otimista (versão do passageiro alterada por outra requisição) são repetidas até o limite de tentativas
+ * configurado e, depois disso, também resultam em 409. A implementação reativa usa as mesmas regras, com
+ * {@link #executaReativo(Supplier)}.
+ */
+@Component
+public class RetentativaCheckin {
+
+    private final int tentativas;
+    private final Counter conflitosAssento;
+    private final Counter conflitosVersao;
+    private final Counter retentativas;
+
+    public RetentativaCheckin(MeterRegistry registry, @Value("${labsky.checkin.tentativas:3}") int tentativas) {
+        this.tentativas = tentativas;
+        this.conflitosAssento = Counter.builder("checkin.conflitos").tag("tipo", "assento").register(registry);
+        this.conflitosVersao = Counter.builder("checkin.conflitos").tag("tipo", "versao").register(registry);
+        this.retentativas = Counter.builder("checkin.retentativas").register(registry);
+    }
+
+    public <T> T executa(Supplier<T> checkin) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return checkin.get();
+            } catch (DataIntegrityViolationException e) {
+                conflitosAssento.increment();
+                throw DominioException.de(CodigoErro.ASSENTO_OCUPADO);
+            } catch (OptimisticLockingFailureException e) {
+                conflitosVersao.increment();
+                if (tentativa >= tentativas) {
+                    throw DominioException.de(CodigoErro.CHECKIN_ALTERADO);
+                }
+                retentativas.increment();
+            }
+        }
+    }
+
+    /**
+     * Equivalente não bloqueante de {@link #executa(Supplier)}: a cada conflito de versão o check-in é assinado
+     * novamente, relendo o passageiro, até o mesmo limite de tentativas.
+     */
+    public <T> Mono<T> executaReativo(Supplier<Mono<T>> checkin) {
+        return Mono.defer(checkin)
+                .doOnError(OptimisticLockingFailureException.class, e -> conflitosVersao.increment())
+                .retryWhen(Retry.max(tentativas - 1L)
+                        .filter(OptimisticLockingFailureException.class::isInstance)
+                        .doBeforeRetry(sinal -> retentativas.increment())
+                        .onRetryExhaustedThrow((especificacao, sinal) -> DominioException.de(CodigoErro.CHECKIN_ALTERADO)))
+                .onErrorMap(DataIntegrityViolationException.class, e -> {
+                    conflitosAssento.increment();
+                    return DominioException.de(CodigoErro.ASSENTO_OCUPADO);
+                });
+    }
+
+}
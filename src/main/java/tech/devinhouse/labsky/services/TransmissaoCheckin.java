@@ -0,0 +1,292 @@
+package tech.devinhouse.labsky.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.devinhouse.labsky.records.eventos.EventoConfirmacao;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transmissão dos check-ins confirmados aos painéis de embarque (Server-Sent Events).
+ * <p>
+ * Cada check-in recebe um identificador sequencial, é serializado uma única vez e guardado em um histórico circular
+ * com os últimos {@code labsky.transmissao.historico} eventos. Os assinantes não têm filas próprias: cada um guarda
+ * apenas o identificador do último evento enviado. A cada {@code labsky.transmissao.intervalo}, os eventos novos são
+ * enviados a cada assinante em um único lote, em uma thread virtual, de modo que uma rajada de check-ins chega como
+ * um só envio e um assinante lento não atrasa os demais. O assinante que ainda está enviando o lote anterior recebe
+ * os eventos acumulados no próximo intervalo; se ficar para trás de todo o histórico, é desconectado.
+ * <p>
+ * Um assinante que reconecta com o identificador do último evento recebido ({@code Last-Event-ID}) recebe os eventos
+ * seguintes a partir do histórico; se eles já tiverem saído do histórico (ou se a aplicação foi reiniciada), é avisado
+ * da lacuna para recarregar a lista de passageiros e passa a receber os eventos novos. Os eventos publicados dentro de uma transação só são transmitidos depois do commit.
+ * <p>
+ * Métricas: {@code transmissao.assinantes} com os assinantes conectados e {@code transmissao.descartados} com os
+ * assinantes desconectados por lentidão.
+ */
+@Slf4j
+@Component
+public class TransmissaoCheckin {
+
+    private final ObjectWriter writer;
+    private final Evento[] historico;
+    private final long intervaloNanos;
+    private final long pulsoNanos;
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final Counter descartados;
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService distribuidor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "transmissao-checkin");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long ultimoId;
+    private long ultimoPulso = System.nanoTime();
+
+    public TransmissaoCheckin(ObjectMapper objectMapper, MeterRegistry registry,
+                              @Value("${labsky.transmissao.historico:4096}") int historico,
+                              @Value("${labsky.transmissao.intervalo:100ms}") Duration intervalo,
+                              @Value("${labsky.transmissao.pulso:15s}") Duration pulso) {
+        this.writer = objectMapper.writerFor(EventoConfirmacao.class);
+        this.historico = new Evento[historico];
+        this.intervaloNanos = intervalo.toNanos();
+        this.pulsoNanos = pulso.toNanos();
+        this.descartados = Counter.builder("transmissao.descartados").register(registry);
+        Gauge.builder("transmissao.assinantes", assinantes, Set::size).register(registry);
+    }
+
+    @PostConstruct
+    public void inicia() {
+        distribuidor.scheduleWithFixedDelay(this::distribui, intervaloNanos, intervaloNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void encerra() {
+        distribuidor.shutdownNow();
+        envios.shutdownNow();
+        assinantes.forEach(assinante -> assinante.destino.encerra());
+        assinantes.clear();
+    }
+
+    /**
+     * Publica o check-in confirmado. Dentro de uma transação, a publicação é feita somente depois do commit.
+     */
+    public void publica(EventoConfirmacao evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adiciona(evento);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adiciona(evento);
+            }
+        });
+    }
+
+    /**
+     * Registra um assinante.
+     *
+     * @param ultimoIdRecebido identificador do último evento recebido pelo assinante ({@code Last-Event-ID}), ou null
+     *                         para receber somente os eventos publicados a partir de agora
+     * @param codigoVoo voo dos eventos enviados ao assinante, ou null para todos os voos
+     * @return a assinatura, que deve ser cancelada quando a conexão do assinante for encerrada
+     */
+    public Assinatura assina(Long ultimoIdRecebido, String codigoVoo, Destino destino) {
+        long ultimo = ultimoId;
+        Assinante assinante;
+        if (ultimoIdRecebido == null) {
+            assinante = new Assinante(ultimo, false, codigoVoo, destino);
+        } else if (ultimoIdRecebido > ultimo || ultimoIdRecebido < ultimo - historico.length) {
+            // identificador de antes do reinício da aplicação ou que já saiu do histórico
+            assinante = new Assinante(ultimo, true, codigoVoo, destino);
+        } else {
+            assinante = new Assinante(Math.max(0, ultimoIdRecebido), false, codigoVoo, destino);
+        }
+        assinantes.add(assinante);
+        if (assinante.cursor < ultimo || assinante.lacuna) {
+            agenda(assinante, false);
+        }
+        return () -> assinantes.remove(assinante);
+    }
+
+    public int assinantes() {
+        return assinantes.size();
+    }
+
+    private synchronized void adiciona(EventoConfirmacao evento) {
+        String json;
+        try {
+            json = writer.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            log.error("Falha ao serializar o evento de check-in do passageiro {}", evento.cpf(), e);
+            return;
+        }
+        long id = ultimoId + 1;
+        historico[(int) (id % historico.length)] = new Evento(id, evento.codigoVoo(), json);
+        ultimoId = id;
+    }
+
+    /**
+     * Copia do histórico os eventos após {@code cursor}, até o último evento publicado. O último identificador é lido
+     * com o bloqueio de {@link #adiciona}, para que nenhuma posição do histórico copiada tenha sido sobrescrita por um
+     * evento mais novo.
+     *
+     * @return os eventos, ou null se os eventos seguintes ao cursor já saíram do histórico
+     */
+    private synchronized List<Evento> eventos(long cursor) {
+        long ate = ultimoId;
+        if (ate - cursor > historico.length) {
+            return null;
+        }
+        List<Evento> eventos = new ArrayList<>((int) (ate - cursor));
+        for (long id = cursor + 1; id <= ate; id++) {
+            eventos.add(historico[(int) (id % historico.length)]);
+        }
+        return eventos;
+    }
+
+    void distribui() {
+        long agora = System.nanoTime();
+        boolean pulso = agora - ultimoPulso >= pulsoNanos;
+        if (pulso) {
+            ultimoPulso = agora;
+        }
+        long ultimo = ultimoId;
+        for (Assinante assinante : assinantes) {
+            if (assinante.cursor < ultimo || pulso) {
+                agenda(assinante, pulso);
+            }
+        }
+    }
+
+    private void agenda(Assinante assinante, boolean pulso) {
+        if (!assinante.enviando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            envios.execute(() -> envia(assinante, pulso));
+        } catch (RuntimeException e) {
+            assinante.enviando.set(false);
+        }
+    }
+
+    private void envia(Assinante assinante, boolean pulso) {
+        try {
+            List<Evento> eventos = assinante.cursor < ultimoId ? eventos(assinante.cursor) : List.of();
+            if (eventos == null) {
+                descarta(assinante);
+                return;
+            }
+            if (!eventos.isEmpty() || assinante.lacuna) {
+                assinante.destino.envia(filtra(eventos, assinante.codigoVoo), assinante.lacuna);
+            } else if (pulso) {
+                assinante.destino.pulso();
+            }
+            if (!eventos.isEmpty()) {
+                assinante.cursor = eventos.get(eventos.size() - 1).id();
+            }
+            assinante.lacuna = false;
+        } catch (IOException | RuntimeException e) {
+            assinantes.remove(assinante);
+            assinante.destino.encerra();
+        } finally {
+            assinante.enviando.set(false);
+        }
+    }
+
+    private void descarta(Assinante assinante) {
+        assinantes.remove(assinante);
+        descartados.increment();
+        assinante.destino.encerra();
+    }
+
+    private static List<Evento> filtra(List<Evento> eventos, String codigoVoo) {
+        if (codigoVoo == null) {
+            return eventos;
+        }
+        List<Evento> filtrados = new ArrayList<>(eventos.size());
+        for (Evento evento : eventos) {
+            if (codigoVoo.equalsIgnoreCase(evento.codigoVoo())) {
+                filtrados.add(evento);
+            }
+        }
+        return filtrados;
+    }
+
+    /**
+     * Evento já serializado em JSON.
+     */
+    public record Evento(long id, String codigoVoo, String json) {
+    }
+
+    /**
+     * Conexão de um assinante. Os métodos são chamados por uma thread de envio de cada vez.
+     */
+    public interface Destino {
+
+        /**
+         * Envia um lote de eventos, eventualmente vazio depois do filtro por voo.
+         *
+         * @param lacuna se eventos anteriores ao lote foram perdidos e o assinante deve recarregar a lista
+         */
+        void envia(List<Evento> eventos, boolean lacuna) throws IOException;
+
+        /**
+         * Mantém a conexão aberta quando não há eventos.
+         */
+        void pulso() throws IOException;
+
+        /**
+         * Encerra a conexão do assinante descartado.
+         */
+        void encerra();
+
+    }
+
+    @FunctionalInterface
+    public interface Assinatura {
+
+        void cancela();
+
+    }
+
+    private static final class Assinante {
+
+        private final String codigoVoo;
+        private final Destino destino;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean lacuna;
+
+        private Assinante(long cursor, boolean lacuna, String codigoVoo, Destino destino) {
+            this.cursor = cursor;
+            this.lacuna = lacuna;
+            this.codigoVoo = codigoVoo;
+            this.destino = destino;
+        }
+
+    }
+
+}
@@ -1,29 +1,35 @@
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('000.000.000-00', 'Rachel Green', '1969-01-11', 'VIP', 100);
+INSERT INTO voos (codigo, partida, fileiras, colunas, fileiras_emergencia)
+VALUES ('LS1001', DATEADD('HOUR', 6, CURRENT_DATE), 10, 'ABCDEF', '5,6');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('111.111.111-11', 'Phoebe Buffay', '1963-07-30', 'OURO', 100);
+INSERT INTO voos (codigo, partida, fileiras, colunas, fileiras_emergencia)
+VALUES ('LS1002', DATEADD('HOUR', 14, CURRENT_DATE), 30, 'ABCDEF', '12,14');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('222.222.222-22', 'Ross Geller', '1966-11-02', 'PRATA', 100);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('000.000.000-00', 'Rachel Green', '1969-01-11', 'VIP', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('333.333.333-33', 'Monica Geller', '1964-06-15', 'OURO', 100);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('111.111.111-11', 'Phoebe Buffay', '1963-07-30', 'OURO', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('444.444.444-44', 'Chandler Bing', '1969-08-19', 'OURO', 100);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('222.222.222-22', 'Ross Geller', '1966-11-02', 'PRATA', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('555.555.555-55', 'Joey Tribbiani', '1967-07-25', 'BRONZE', 100);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('333.333.333-33', 'Monica Geller', '1964-06-15', 'OURO', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('666.666.666-66', 'Mike Hannigan', '1969-04-06', 'VIP', 100);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('444.444.444-44', 'Chandler Bing', '1969-08-19', 'OURO', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('777.777.777-77', 'Gunther Tyler', '1962-05-28', 'ASSOCIADO', 100);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('555.555.555-55', 'Joey Tribbiani', '1967-07-25', 'BRONZE', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('888.888.888-88', 'Janice Wheeler', '1961-08-07', 'BRONZE', 75);
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('666.666.666-66', 'Mike Hannigan', '1969-04-06', 'VIP', 100, 'LS1001');
 
-INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas)
-VALUES ('999.999.999-99', 'Richard Burke', '1945-01-29', 'BRONZE', 50);
\ No newline at end of file
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('777.777.777-77', 'Gunther Tyler', '1962-05-28', 'ASSOCIADO', 100, 'LS1002');
+
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('888.888.888-88', 'Janice Wheeler', '1961-08-07', 'BRONZE', 75, 'LS1002');
+
+INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo)
+VALUES ('999.999.999-99', 'Richard Burke', '1945-01-29', 'BRONZE', 50, 'LS1002');
\ No newline at end of file
@@ -0,0 +1,86 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tech.devinhouse.labsky.AviacaoApiApplication;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.services.InventarioAssentos;
+import tech.devinhouse.labsky.services.MapaAssentos;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inicia a aplicação sem servidor web, com o banco H2 em memória populado com o voo {@link #VOO} e a
+ * quantidade de passageiros informada, para uso pelos benchmarks.
+ */
+final class AmbienteBenchmark {
+
+    static final String VOO = "LS1001";
+    static final List<String> ASSENTOS = new MapaAssentos(10, "ABCDEF", Set.of(5, 6)).assentos();
+
+    private static final int LOTE_INSERCAO = 1000;
+
+    private AmbienteBenchmark() {
+    }
+
+    static ConfigurableApplicationContext inicia(int passageiros, String... argumentos) {
+        return inicia(passageiros, "--spring.main.web-application-type=none", argumentos);
+    }
+
+    /**
+     * Inicia a aplicação com o servidor web em uma porta aleatória, obtida com {@link #porta}.
+     */
+    static ConfigurableApplicationContext iniciaServidor(int passageiros, String... argumentos) {
+        return inicia(passageiros, "--server.port=0", argumentos);
+    }
+
+    static int porta(ConfigurableApplicationContext contexto) {
+        return contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext inicia(int passageiros, String web, String... argumentos) {
+        List<String> propriedades = new ArrayList<>(List.of(
+                web,
+                "--spring.main.banner-mode=off",
+                "--spring.sql.init.mode=never",
+                "--logging.level.root=WARN"));
+        propriedades.addAll(List.of(argumentos));
+        ConfigurableApplicationContext contexto = SpringApplication.run(AviacaoApiApplication.class, propriedades.toArray(String[]::new));
+        popula(contexto.getBean(JdbcTemplate.class), passageiros);
+        contexto.getBean(InventarioAssentos.class).recarrega();
+        return contexto;
+    }
+
+    static void popula(JdbcTemplate jdbcTemplate, int passageiros) {
+        jdbcTemplate.update("INSERT INTO voos (codigo, partida, fileiras, colunas, fileiras_emergencia) VALUES (?, CURRENT_TIMESTAMP, 10, 'ABCDEF', '5,6')", VOO);
+        Classificacao[] classificacoes = Classificacao.values();
+        List<Object[]> lote = new ArrayList<>(LOTE_INSERCAO);
+        for (int i = 0; i < passageiros; i++) {
+            lote.add(new Object[]{cpf(i), "Passageiro " + i, Date.valueOf(LocalDate.of(1960 + i % 40, 1 + i % 12, 1 + i % 28)),
+                    classificacoes[i % classificacoes.length].name(), 100, VOO});
+            if (lote.size() == LOTE_INSERCAO || i == passageiros - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo) VALUES (?, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Desfaz todos os check-ins e recarrega os mapas de assentos.
+     */
+    static void limpaConfirmacoes(ConfigurableApplicationContext contexto) {
+        contexto.getBean(JdbcTemplate.class).update("UPDATE passageiros SET eticket = NULL, assento = NULL, data_hora_confirmacao = NULL, malas_despachadas = NULL");
+        contexto.getBean(InventarioAssentos.class).recarrega();
+    }
+
+    static String cpf(int i) {
+        String digitos = String.format("%011d", i);
+        return digitos.substring(0, 3) + "." + digitos.substring(3, 6) + "." + digitos.substring(6, 9) + "-" + digitos.substring(9);
+    }
+
+}
@@ -0,0 +1,59 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+import tech.devinhouse.labsky.services.PassageiroService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o check-in completo ({@link PassageiroService#confirmacao}): validação do assento, acúmulo de milhas e
+ * gravação no banco.
+ * <p>
+ * Cada iteração ocupa todos os assentos da aeronave uma única vez, por isso o modo é {@code SingleShotTime}
+ * com lotes do tamanho do mapa de assentos, e os check-ins são desfeitos antes da próxima iteração.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = 60)
+@Measurement(iterations = 20, batchSize = 60)
+@Fork(1)
+public class CheckinBenchmark {
+
+    @Param({"1000", "100000"})
+    public int passageiros;
+
+    private ConfigurableApplicationContext contexto;
+    private PassageiroService service;
+    private int iteracao;
+    private int operacao;
+
+    @Setup(Level.Trial)
+    public void inicia() {
+        contexto = AmbienteBenchmark.inicia(passageiros);
+        service = contexto.getBean(PassageiroService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void limpa() {
+        AmbienteBenchmark.limpaConfirmacoes(contexto);
+        iteracao++;
+        operacao = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void encerra() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ConfirmacaoResponse confirmacao() {
+        int assento = operacao++ % AmbienteBenchmark.ASSENTOS.size();
+        String cpf = AmbienteBenchmark.cpf((iteracao * AmbienteBenchmark.ASSENTOS.size() + assento) % passageiros);
+        return service.confirmacao(new ConfirmacaoRequest(cpf, AmbienteBenchmark.ASSENTOS.get(assento), true, null, null));
+    }
+
+}
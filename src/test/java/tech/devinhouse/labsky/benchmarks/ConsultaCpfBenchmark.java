@@ -0,0 +1,55 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.services.CacheConsultaCpf;
+import tech.devinhouse.labsky.services.PassageiroService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a consulta de passageiro pelo CPF ({@link PassageiroService#listaPassageiroPeloCpf}) com a consulta já
+ * em cache e forçando a ida ao banco de dados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConsultaCpfBenchmark {
+
+    @Param({"1000", "100000"})
+    public int passageiros;
+
+    private ConfigurableApplicationContext contexto;
+    private PassageiroService service;
+    private CacheConsultaCpf cache;
+
+    @Setup(Level.Trial)
+    public void inicia() {
+        contexto = AmbienteBenchmark.inicia(passageiros);
+        service = contexto.getBean(PassageiroService.class);
+        cache = contexto.getBean(CacheConsultaCpf.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerra() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ConsultaCPFResponse consultaEmCache() {
+        return service.listaPassageiroPeloCpf(AmbienteBenchmark.cpf(ThreadLocalRandom.current().nextInt(Math.min(passageiros, 1000))));
+    }
+
+    @Benchmark
+    public ConsultaCPFResponse consultaNoBanco() {
+        String cpf = AmbienteBenchmark.cpf(ThreadLocalRandom.current().nextInt(passageiros));
+        cache.invalida(cpf);
+        return service.listaPassageiroPeloCpf(cpf);
+    }
+
+}
@@ -0,0 +1,251 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta: inicia a aplicação em uma porta aleatória, com o voo {@link AmbienteBenchmark#VOO}
+ * e a quantidade de passageiros informada, e envia uma mistura de consultas por CPF, consultas do mapa de assentos e
+ * check-ins (em assentos sorteados entre os do voo, com disputa pelos mesmos assentos) a uma taxa fixa.
+ * <p>
+ * As requisições são disparadas no instante previsto pela taxa, sem aguardar as respostas anteriores, e a latência é
+ * medida a partir desse instante, de modo que a espera na fila do servidor também é medida. Com {@code concorrencia}
+ * requisições em andamento, as próximas são descartadas e contadas no relatório. Ao final, o relatório mostra a vazão,
+ * os status HTTP e os percentis p50, p99 e p99,9 de cada endpoint, e os histogramas são gravados em
+ * {@code target/carga/*.hgrm}. Com {@code p99-maximo}, termina com código de saída 1 se o p99 de algum endpoint
+ * passar do limite ou se alguma requisição for descartada, para uso em CI: as descartadas não entram no histograma,
+ * e um servidor sobrecarregado, que segura as requisições até o limite de {@code concorrencia}, teria um p99 bom.
+ * <p>
+ * Execução: {@code ./mvnw -Pcarga verify -DskipTests -Dcarga.argumentos="taxa=500 duracao=60s passageiros=10000 p99-maximo=200"}.
+ * Os argumentos iniciados por {@code --} são repassados à aplicação, por exemplo {@code --labsky.execucao.modo=virtual}.
+ * <p>
+ * Argumentos (valores padrão entre parênteses): {@code passageiros} (10000), {@code taxa} em requisições por segundo
+ * (200), {@code duracao} (30s), {@code aquecimento} (10s), {@code concorrencia} (256), {@code quiosques} (100, clientes
+ * distintos no cabeçalho {@code X-Quiosque}, usado pelo controle de admissão), {@code mistura} com o peso de cada
+ * endpoint (consulta-cpf:70,assentos:20,checkin:10) e {@code p99-maximo} em milissegundos.
+ */
+public final class GeradorCarga {
+
+    private static final String CABECALHO_QUIOSQUE = "X-Quiosque";
+    private static final double NANOS_POR_MILISSEGUNDO = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<String, String> opcoes;
+    private final int passageiros;
+    private final double taxa;
+    private final int quiosques;
+    private final Semaphore emAndamento;
+    private final List<Operacao> operacoes = new ArrayList<>();
+    private final int pesoTotal;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(executor)
+            .build();
+    private String url;
+
+    private GeradorCarga(Map<String, String> opcoes) {
+        this.opcoes = opcoes;
+        this.passageiros = Integer.parseInt(opcoes.getOrDefault("passageiros", "10000"));
+        this.taxa = Double.parseDouble(opcoes.getOrDefault("taxa", "200"));
+        this.quiosques = Integer.parseInt(opcoes.getOrDefault("quiosques", "100"));
+        this.emAndamento = new Semaphore(Integer.parseInt(opcoes.getOrDefault("concorrencia", "256")));
+        int peso = 0;
+        for (String item : opcoes.getOrDefault("mistura", "consulta-cpf:70,assentos:20,checkin:10").split(",")) {
+            String[] partes = item.split(":");
+            peso += Integer.parseInt(partes[1]);
+            operacoes.add(new Operacao(partes[0], peso));
+        }
+        this.pesoTotal = peso;
+    }
+
+    public static void main(String[] argumentos) throws Exception {
+        Map<String, String> opcoes = new LinkedHashMap<>();
+        List<String> argumentosAplicacao = new ArrayList<>(List.of("--labsky.admissao.cabecalho-cliente=" + CABECALHO_QUIOSQUE));
+        for (String argumento : argumentos) {
+            if (argumento.startsWith("--")) {
+                argumentosAplicacao.add(argumento);
+            } else if (!argumento.isBlank()) {
+                String[] partes = argumento.split("=", 2);
+                opcoes.put(partes[0], partes[1]);
+            }
+        }
+
+        GeradorCarga gerador = new GeradorCarga(opcoes);
+        boolean dentroDoLimite;
+        try (ConfigurableApplicationContext contexto = AmbienteBenchmark.iniciaServidor(gerador.passageiros, argumentosAplicacao.toArray(String[]::new))) {
+            gerador.url = "http://localhost:" + AmbienteBenchmark.porta(contexto) + "/api/";
+            Duration aquecimento = Duration.parse("PT" + opcoes.getOrDefault("aquecimento", "10s"));
+            Duration duracao = Duration.parse("PT" + opcoes.getOrDefault("duracao", "30s"));
+
+            gerador.executa(aquecimento);
+            gerador.operacoes.forEach(Operacao::reinicia);
+            AmbienteBenchmark.limpaConfirmacoes(contexto);
+            long inicio = System.nanoTime();
+            gerador.executa(duracao);
+            double segundos = (System.nanoTime() - inicio) / (double) TimeUnit.SECONDS.toNanos(1);
+
+            dentroDoLimite = gerador.relata(segundos, System.out);
+        } finally {
+            gerador.executor.shutdownNow();
+        }
+        System.exit(dentroDoLimite ? 0 : 1);
+    }
+
+    /**
+     * Dispara as requisições na taxa configurada durante o período e aguarda as respostas em andamento.
+     */
+    private void executa(Duration periodo) throws InterruptedException {
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+        long inicio = System.nanoTime();
+        long fim = inicio + periodo.toNanos();
+        for (long previsto = inicio; previsto < fim; previsto += intervalo) {
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Operacao operacao = sorteia();
+            if (!emAndamento.tryAcquire()) {
+                operacao.descartadas.increment();
+                continue;
+            }
+            long instante = previsto;
+            cliente.sendAsync(operacao.requisicao(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        operacao.registra(System.nanoTime() - instante, resposta == null ? 0 : resposta.statusCode());
+                        emAndamento.release();
+                    });
+        }
+        int limite = Integer.parseInt(opcoes.getOrDefault("concorrencia", "256"));
+        if (!emAndamento.tryAcquire(limite, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("As requisições em andamento não terminaram em 1 minuto");
+        }
+        emAndamento.release(limite);
+    }
+
+    private Operacao sorteia() {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Operacao operacao : operacoes) {
+            if (sorteio < operacao.pesoAcumulado) {
+                return operacao;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private boolean relata(double segundos, PrintStream saida) throws IOException {
+        String limite = opcoes.get("p99-maximo");
+        boolean dentroDoLimite = true;
+        Path diretorio = Files.createDirectories(Path.of("target", "carga"));
+
+        saida.printf("%nTaxa: %.0f req/s, duração: %.1f s%n", taxa, segundos);
+        saida.printf("%-14s %11s %12s %10s %10s %10s %10s %11s  %s%n",
+                "endpoint", "requisicoes", "vazao(req/s)", "p50(ms)", "p99(ms)", "p99,9(ms)", "max(ms)", "descartadas", "status");
+        for (Operacao operacao : operacoes) {
+            Histogram histograma = operacao.latencias;
+            saida.printf("%-14s %11d %12.1f %10.2f %10.2f %10.2f %10.2f %11d  %s%n",
+                    operacao.nome, histograma.getTotalCount(), histograma.getTotalCount() / segundos,
+                    milissegundos(histograma.getValueAtPercentile(50)), milissegundos(histograma.getValueAtPercentile(99)),
+                    milissegundos(histograma.getValueAtPercentile(99.9)), milissegundos(histograma.getMaxValue()),
+                    operacao.descartadas.sum(), operacao.status());
+            try (PrintStream arquivo = new PrintStream(Files.newOutputStream(diretorio.resolve(operacao.nome + ".hgrm")))) {
+                histograma.outputPercentileDistribution(arquivo, NANOS_POR_MILISSEGUNDO);
+            }
+            if (limite != null && milissegundos(histograma.getValueAtPercentile(99)) > Double.parseDouble(limite)) {
+                saida.printf("p99 de %s acima do limite de %s ms%n", operacao.nome, limite);
+                dentroDoLimite = false;
+            }
+            if (limite != null && operacao.descartadas.sum() > 0) {
+                saida.printf("%d requisições de %s descartadas no limite de concorrência%n", operacao.descartadas.sum(), operacao.nome);
+                dentroDoLimite = false;
+            }
+        }
+        return dentroDoLimite;
+    }
+
+    private static double milissegundos(long nanos) {
+        return nanos / NANOS_POR_MILISSEGUNDO;
+    }
+
+    /**
+     * Endpoint da mistura, com o histograma de latências e a contagem de respostas por status (0 para falhas de conexão).
+     */
+    private final class Operacao {
+
+        private final String nome;
+        private final int pesoAcumulado;
+        private final Histogram latencias = new ConcurrentHistogram(3);
+        private final Map<Integer, LongAdder> respostas = new ConcurrentHashMap<>();
+        private final LongAdder descartadas = new LongAdder();
+
+        private Operacao(String nome, int pesoAcumulado) {
+            if (!List.of("consulta-cpf", "assentos", "checkin").contains(nome)) {
+                throw new IllegalArgumentException("Endpoint desconhecido na mistura: " + nome);
+            }
+            this.nome = nome;
+            this.pesoAcumulado = pesoAcumulado;
+        }
+
+        private HttpRequest requisicao() {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            String cpf = AmbienteBenchmark.cpf(aleatorio.nextInt(passageiros));
+            HttpRequest.Builder requisicao = switch (nome) {
+                case "consulta-cpf" -> HttpRequest.newBuilder(URI.create(url + "passageiros/" + cpf)).GET();
+                case "assentos" -> HttpRequest.newBuilder(URI.create(url + "voos/" + AmbienteBenchmark.VOO + "/assentos")).GET();
+                default -> {
+                    String assento = AmbienteBenchmark.ASSENTOS.get(aleatorio.nextInt(AmbienteBenchmark.ASSENTOS.size()));
+                    yield HttpRequest.newBuilder(URI.create(url + "passageiros/confirmacao"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"cpf\":\"" + cpf + "\",\"assento\":\"" + assento + "\",\"malasDespachadas\":true}"));
+                }
+            };
+            return requisicao
+                    .header(CABECALHO_QUIOSQUE, "quiosque-" + aleatorio.nextInt(quiosques))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+        }
+
+        private void registra(long latencia, int status) {
+            latencias.recordValue(latencia);
+            respostas.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        private void reinicia() {
+            latencias.reset();
+            respostas.clear();
+            descartadas.reset();
+        }
+
+        private String status() {
+            Map<Integer, Long> contagem = new TreeMap<>();
+            respostas.forEach((status, quantidade) -> contagem.put(status, quantidade.sum()));
+            return contagem.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo entre o início do processo da aplicação e a primeira resposta com sucesso de
+ * {@code GET /api/passageiros/{cpf}}, em cada combinação do perfil de inicialização rápida:
+ * <ul>
+ *     <li>{@code padrao}: sem nenhuma otimização</li>
+ *     <li>{@code preguicosa}: inicialização preguiçosa dos beans (perfil Spring {@code inicializacao-rapida})</li>
+ *     <li>{@code aot}: inicialização preguiçosa e contexto gerado pelo processamento AOT</li>
+ *     <li>{@code aot-cds}: inicialização preguiçosa, AOT e o arquivo de CDS gerado no build</li>
+ * </ul>
+ * Cada medição inicia um novo processo, a partir do jar gerado pelo perfil Maven {@code inicializacao-rapida}.
+ * <p>
+ * Execução: {@code ./mvnw -Pinicializacao-rapida,benchmark verify -DskipTests -Djmh.argumentos="Inicializacao -rf json -rff target/inicializacao.json"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InicializacaoBenchmark {
+
+    private static final Path ALVO = Path.of("target");
+    private static final Duration LIMITE = Duration.ofMinutes(2);
+
+    @Param({"padrao", "preguicosa", "aot", "aot-cds"})
+    public String variante;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private Process processo;
+
+    @Setup(Level.Trial)
+    public void verifica() throws IOException {
+        if (!Files.exists(ALVO.resolve("labsky.jsa"))) {
+            throw new IllegalStateException("Gere o jar e o arquivo de CDS com ./mvnw -Pinicializacao-rapida package -DskipTests");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void encerra() throws InterruptedException {
+        if (processo != null) {
+            processo.destroy();
+            processo.waitFor();
+            processo = null;
+        }
+    }
+
+    @Benchmark
+    public int primeiraConsultaCpf() throws IOException, InterruptedException {
+        int porta = portaLivre();
+        processo = new ProcessBuilder(comando(porta))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/passageiros/000.000.000-00")).GET().build();
+        long limite = System.nanoTime() + LIMITE.toNanos();
+        while (System.nanoTime() < limite && processo.isAlive()) {
+            try {
+                int status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (ConnectException e) {
+                // o servidor ainda não está aceitando conexões
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("A aplicação não respondeu à consulta pelo CPF na variante " + variante);
+    }
+
+    private List<String> comando(int porta) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (variante.equals("aot-cds")) {
+            comando.add("-XX:SharedArchiveFile=" + ALVO.resolve("labsky.jsa"));
+        }
+        if (variante.startsWith("aot")) {
+            comando.add("-Dspring.aot.enabled=true");
+        }
+        if (!variante.equals("padrao")) {
+            comando.add("-Dspring.profiles.active=inicializacao-rapida");
+        }
+        comando.add("-Dserver.port=" + porta);
+        comando.add("-jar");
+        comando.add(ALVO.resolve("LABSky-0.0.1-SNAPSHOT.jar").toString());
+        return comando;
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
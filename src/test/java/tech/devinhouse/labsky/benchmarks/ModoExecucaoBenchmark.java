@@ -0,0 +1,77 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a vazão e a latência (p99 no relatório do modo {@code SampleTime}) das requisições HTTP com o Tomcat
+ * em pool de threads de plataforma e em threads virtuais ({@code labsky.execucao.modo}) e com a implementação
+ * reativa (perfil {@code reativo}, Netty e R2DBC), com mais clientes simultâneos do que threads no pool padrão
+ * do Tomcat (200).
+ * <p>
+ * Execução: {@code -Djmh.argumentos="ModoExecucao -bm thrpt,sample -rf json -rff target/modo-execucao.json"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(400)
+@Fork(1)
+public class ModoExecucaoBenchmark {
+
+    @Param({"plataforma", "virtual", "reativo"})
+    public String modo;
+
+    @Param({"10000"})
+    public int passageiros;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void inicia() {
+        // o controle de admissão limitaria os 400 clientes simultâneos e esconderia a diferença entre os modos
+        contexto = AmbienteBenchmark.iniciaServidor(passageiros, "--labsky.admissao.habilitada=false",
+                modo.equals("reativo") ? "--spring.profiles.active=reativo" : "--labsky.execucao.modo=" + modo);
+        url = "http://localhost:" + AmbienteBenchmark.porta(contexto) + "/api/passageiros/";
+        cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerra() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int consultaCpf() throws IOException, InterruptedException {
+        return envia(url + AmbienteBenchmark.cpf(ThreadLocalRandom.current().nextInt(passageiros)));
+    }
+
+    /**
+     * A listagem paginada não faz parte da implementação reativa; para o modo {@code reativo} execute somente
+     * {@code ModoExecucaoBenchmark.consultaCpf}.
+     */
+    @Benchmark
+    public int consultaPagina() throws IOException, InterruptedException {
+        return envia(url + "pagina?limite=50&cursor=" + AmbienteBenchmark.cpf(ThreadLocalRandom.current().nextInt(passageiros)));
+    }
+
+    private int envia(String uri) throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+}
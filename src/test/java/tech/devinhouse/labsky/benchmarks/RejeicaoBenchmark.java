@@ -0,0 +1,137 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import jakarta.persistence.EntityExistsException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.exceptions.Handler;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.services.PassageiroService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Mede o custo de rejeitar um check-in.
+ * <p>
+ * {@code assentoOcupado} e {@code checkinDuplicado} executam a rejeição completa ({@link PassageiroService#confirmacao}
+ * e o mapeamento do {@link Handler}). {@code antesComPilha} e {@code depoisSemPilha} comparam, a partir da mesma
+ * profundidade de pilha, a abordagem anterior (exceção nova com pilha de chamadas, classificada pela mensagem)
+ * com a atual ({@link DominioException} sem pilha, mapeada pelo código).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RejeicaoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Aplicacao {
+
+        @Param({"1000"})
+        public int passageiros;
+
+        private ConfigurableApplicationContext contexto;
+        private PassageiroService service;
+        private final Handler handler = new Handler();
+
+        @Setup(Level.Trial)
+        public void inicia() {
+            contexto = AmbienteBenchmark.inicia(passageiros);
+            service = contexto.getBean(PassageiroService.class);
+            service.confirmacao(new ConfirmacaoRequest(AmbienteBenchmark.cpf(0), "1A", true, null, null));
+        }
+
+        @TearDown(Level.Trial)
+        public void encerra() {
+            contexto.close();
+        }
+
+        private ResponseEntity<String> rejeita(ConfirmacaoRequest request) {
+            try {
+                service.confirmacao(request);
+            } catch (DominioException e) {
+                return handler.trataErroDominio(e);
+            }
+            throw new IllegalStateException("O check-in deveria ter sido rejeitado");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pilha {
+
+        @Param({"20", "150"})
+        public int profundidade;
+
+        @Param({"ASSENTO_OCUPADO", "CHECKIN_DUPLICADO"})
+        public CodigoErro codigo;
+
+        private final Handler handler = new Handler();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> assentoOcupado(Aplicacao aplicacao) {
+        return aplicacao.rejeita(new ConfirmacaoRequest(AmbienteBenchmark.cpf(1), "1A", true, null, null));
+    }
+
+    @Benchmark
+    public ResponseEntity<String> checkinDuplicado(Aplicacao aplicacao) {
+        return aplicacao.rejeita(new ConfirmacaoRequest(AmbienteBenchmark.cpf(0), "2A", true, null, null));
+    }
+
+    @Benchmark
+    public ResponseEntity<String> antesComPilha(Pilha pilha) {
+        String mensagem = pilha.codigo.getMensagem();
+        Supplier<RuntimeException> erro = pilha.codigo.getStatus() == 409
+                ? () -> new EntityExistsException(mensagem)
+                : () -> new RuntimeException(mensagem);
+        try {
+            lanca(pilha.profundidade, erro);
+        } catch (RuntimeException e) {
+            return classificaPelaMensagem(e);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public ResponseEntity<String> depoisSemPilha(Pilha pilha) {
+        CodigoErro codigo = pilha.codigo;
+        try {
+            lanca(pilha.profundidade, () -> DominioException.de(codigo));
+        } catch (DominioException e) {
+            return pilha.handler.trataErroDominio(e);
+        }
+        return null;
+    }
+
+    private static void lanca(int profundidade, Supplier<RuntimeException> erro) {
+        if (profundidade == 0) {
+            throw erro.get();
+        }
+        lanca(profundidade - 1, erro);
+    }
+
+    /**
+     * Classificação por mensagem feita pelo {@link Handler} antes dos códigos de erro.
+     */
+    private static ResponseEntity<String> classificaPelaMensagem(RuntimeException exception) {
+        if (exception instanceof EntityExistsException) {
+            if (exception.getMessage().contains("ocupado")) {
+                return ResponseEntity.status(409).body("O assento já está ocupado por outro passageiro!");
+            }
+            return ResponseEntity.status(409).body(exception.getMessage());
+        }
+        if (exception.getMessage().contains("idade")) {
+            return ResponseEntity.status(400).body("O passageiro é menor de idade e não pode sentar nas fileiras de emergência!");
+        } else if (exception.getMessage().contains("malas")) {
+            return ResponseEntity.status(400).body("O passageiro deve obrigatoriamente despachar suas malas nas fileiras de emergência!");
+        } else if (exception.getMessage().contains("check-in")) {
+            return ResponseEntity.status(400).body("O passageiro já realizou check-in!");
+        }
+        return ResponseEntity.badRequest().build();
+    }
+
+}
@@ -0,0 +1,116 @@
+package tech.devinhouse.labsky.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tech.devinhouse.labsky.config.SerializadoresJson;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mede a serialização JSON das respostas da API com um {@link ObjectMapper} configurado como o do Spring Boot, com a
+ * serialização por reflexão do Jackson ({@code reflexao}) e com os {@link SerializadoresJson} ({@code serializadores}).
+ * O benchmark {@code listaPassageirosGzip} inclui a compressão gzip da resposta, como feita pelo servidor para as
+ * respostas grandes, e o tamanho em bytes de cada resposta, com e sem compressão, é exibido ao final de cada execução.
+ * <p>
+ * Execução: {@code -Djmh.argumentos="Serializacao -prof gc -rf json -rff target/serializacao.json"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"10", "1000"})
+    public int passageiros;
+
+    @Param({"reflexao", "serializadores"})
+    public String serializacao;
+
+    private ObjectMapper objectMapper;
+    private ConsultaCPFResponse consulta;
+    private ConfirmacaoResponse confirmacao;
+    private List<PassageiroResponse> lista;
+
+    @Setup
+    public void inicia() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (serializacao.equals("serializadores")) {
+            builder.modulesToInstall(new SimpleModule()
+                    .addSerializer(ConsultaCPFResponse.class, new SerializadoresJson.ConsultaCpf())
+                    .addSerializer(ConfirmacaoResponse.class, new SerializadoresJson.ConfirmacaoResposta())
+                    .addSerializer(PassageiroResponse.class, new SerializadoresJson.PassageiroResposta()));
+        }
+        objectMapper = builder.build();
+        Classificacao[] classificacoes = Classificacao.values();
+        lista = new ArrayList<>(passageiros);
+        for (int i = 0; i < passageiros; i++) {
+            Passageiro passageiro = new Passageiro(AmbienteBenchmark.cpf(i), "Passageiro " + i, LocalDate.of(1960 + i % 40, 1 + i % 12, 1 + i % 28),
+                    classificacoes[i % classificacoes.length], 100);
+            if (i % 2 == 0) {
+                passageiro.setConfirmacao(new Confirmacao(UUID.randomUUID().toString(), "1A", LocalDateTime.now(), true));
+            }
+            if (i == 0) {
+                consulta = new ConsultaCPFResponse(passageiro);
+                confirmacao = new ConfirmacaoResponse(passageiro);
+            }
+            lista.add(new PassageiroResponse(passageiro));
+        }
+    }
+
+    @Benchmark
+    public byte[] consultaCpf() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(consulta);
+    }
+
+    @Benchmark
+    public byte[] confirmacao() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(confirmacao);
+    }
+
+    @Benchmark
+    public byte[] listaPassageiros() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public byte[] listaPassageirosGzip() throws IOException {
+        return comprime(objectMapper.writeValueAsBytes(lista));
+    }
+
+    @TearDown(Level.Trial)
+    public void exibeTamanhos() throws IOException {
+        for (Object resposta : List.of(consulta, confirmacao, lista)) {
+            byte[] json = objectMapper.writeValueAsBytes(resposta);
+            System.out.printf("%n%s (%d passageiros, %s): %d bytes, %d bytes com gzip%n", resposta instanceof List ? "listaPassageiros" : resposta.getClass().getSimpleName(),
+                    passageiros, serializacao, json.length, comprime(json).length);
+        }
+    }
+
+    private static byte[] comprime(byte[] json) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        }
+        return saida.toByteArray();
+    }
+
+}
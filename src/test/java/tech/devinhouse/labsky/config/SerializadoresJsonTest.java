@@ -0,0 +1,59 @@
+package tech.devinhouse.labsky.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializadoresJsonTest {
+
+    private final ObjectMapper reflexao = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ObjectMapper serializadores = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new SimpleModule()
+                    .addSerializer(ConsultaCPFResponse.class, new SerializadoresJson.ConsultaCpf())
+                    .addSerializer(ConfirmacaoResponse.class, new SerializadoresJson.ConfirmacaoResposta())
+                    .addSerializer(PassageiroResponse.class, new SerializadoresJson.PassageiroResposta())
+                    .addSerializer(Passageiro.class, new SerializadoresJson.PassageiroEntidade()))
+            .build();
+
+    private final Passageiro confirmado = new Passageiro("111.111.111-11", "Phoebe \"Regina\" Buffay", LocalDate.of(1967, 2, 16), Classificacao.VIP, 100,
+            new Confirmacao("eticket", "1A", LocalDateTime.of(2023, 6, 1, 9, 5, 7, 120_000_000), true));
+
+    private final Passageiro semConfirmacao = new Passageiro("222.222.222-22", null, LocalDate.of(1850, 12, 1), null, null);
+
+    @Test
+    @DisplayName("Deve gerar o mesmo JSON da serialização por reflexão do Jackson")
+    void serializa() throws Exception {
+        List<Object> respostas = List.of(
+                new ConsultaCPFResponse(confirmado), new ConsultaCPFResponse(semConfirmacao),
+                new ConfirmacaoResponse(confirmado), new ConfirmacaoResponse(null, null),
+                new PassageiroResponse(confirmado), new PassageiroResponse(semConfirmacao),
+                confirmado, semConfirmacao);
+        for (Object resposta : respostas) {
+            assertEquals(reflexao.writeValueAsString(resposta), serializadores.writeValueAsString(resposta));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve formatar as datas de nascimento no padrão dd/MM/yyyy")
+    void formata() {
+        assertEquals("01/01/1900", SerializadoresJson.formata(LocalDate.of(1900, 1, 1)));
+        assertEquals("29/02/2024", SerializadoresJson.formata(LocalDate.of(2024, 2, 29)));
+        assertEquals("31/12/0999", SerializadoresJson.formata(LocalDate.of(999, 12, 31)));
+    }
+
+}
@@ -1,8 +1,6 @@
 package tech.devinhouse.labsky.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.persistence.EntityExistsException;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,22 +10,42 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.enums.FormatoManifesto;
+import tech.devinhouse.labsky.exceptions.DominioException;
 import tech.devinhouse.labsky.models.Confirmacao;
 import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.request.AtribuicaoAssentosRequest;
+import tech.devinhouse.labsky.records.request.ConfirmacaoLoteRequest;
 import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.AssentoResponse;
+import tech.devinhouse.labsky.records.response.ConfirmacaoLoteResponse;
 import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
 import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.ImportacaoResponse;
+import tech.devinhouse.labsky.records.response.LinhaRejeitadaResponse;
+import tech.devinhouse.labsky.records.response.PaginaPassageirosResponse;
+import tech.devinhouse.labsky.records.response.PainelAssentosResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
 import tech.devinhouse.labsky.services.PassageiroService;
+import tech.devinhouse.labsky.services.TransmissaoCheckin;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -48,16 +66,16 @@ class PassageiroControllerTest {
     @DisplayName("Quando há passageiros cadastrados, deve retornar uma lista de passageiros")
     void listaPassageiros() throws Exception {
         var passageiros = List.of(
-                new Passageiro("111.111.111-11", "Phoebe Buffay"),
-                new Passageiro("222.222.222-22", "Ross Geller")
+                new PassageiroResponse(new Passageiro("111.111.111-11", "Phoebe Buffay")),
+                new PassageiroResponse(new Passageiro("222.222.222-22", "Ross Geller"))
         );
         Mockito.when(service.listaPassageiros()).thenReturn(passageiros);
         mockMvc.perform(get("/api/passageiros")
                         .contentType(APPLICATION_JSON))
                 .andExpect(status().isOk()) // 200
                 .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].cpf", is(passageiros.get(0).getCpf())))
-                .andExpect(jsonPath("$[1].cpf", is(passageiros.get(1).getCpf())));
+                .andExpect(jsonPath("$[0].cpf", is(passageiros.get(0).cpf())))
+                .andExpect(jsonPath("$[1].cpf", is(passageiros.get(1).cpf())));
     }
 
     @Test
@@ -69,6 +87,26 @@ class PassageiroControllerTest {
                 .andExpect(jsonPath("$", is(empty())));
     }
 
+    @Test
+    @DisplayName("Quando consulta uma página de passageiros, deve retornar os passageiros e o cursor da próxima página")
+    void listaPassageirosPaginados() throws Exception {
+        var passageiros = List.of(
+                new Passageiro("111.111.111-11", "Phoebe Buffay"),
+                new Passageiro("222.222.222-22", "Ross Geller")
+        );
+        Mockito.when(service.listaPassageirosPaginados("000.000.000-00", 2, Classificacao.OURO, false))
+                .thenReturn(new PaginaPassageirosResponse(passageiros, "222.222.222-22"));
+        mockMvc.perform(get("/api/passageiros/pagina")
+                        .param("cursor", "000.000.000-00")
+                        .param("limite", "2")
+                        .param("classificacao", "OURO")
+                        .param("checkin", "false")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk()) // 200
+                .andExpect(jsonPath("$.passageiros", hasSize(2)))
+                .andExpect(jsonPath("$.proximoCursor", is("222.222.222-22")));
+    }
+
     @Test
     @DisplayName("Quando há um passageiro cadastrado com o CPF informado, deve retornar o passageiro")
     void listaPassageiroPeloCPF() throws Exception {
@@ -83,19 +121,73 @@ class PassageiroControllerTest {
     @Test
     @DisplayName("Quando não há passageiro cadastrado com o CPF informado, deve lançar uma exceção")
     void listaPassageiroPeloCPF_naoEncontrado() throws Exception {
-        Mockito.doThrow(new EntityNotFoundException("Passageiro")).when(service).listaPassageiroPeloCpf(Mockito.anyString());
+        Mockito.doThrow(DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO)).when(service).listaPassageiroPeloCpf(Mockito.anyString());
         mockMvc.perform(get("/api/passageiros/{cpf}", "111.111.111-11")
                         .contentType(APPLICATION_JSON))
                 .andExpect(status().isNotFound()); // 404
     }
 
     @Test
-    @DisplayName("Quando há assentos cadastrados, deve retornar uma lista de assentos")
+    @DisplayName("Quando há assentos cadastrados, deve retornar uma lista de assentos com a sua situação")
     void listaAssentos() throws Exception {
+        var assentos = List.of(
+                new AssentoResponse("1A", false, false),
+                new AssentoResponse("1B", true, false),
+                new AssentoResponse("5A", false, true)
+        );
+        Mockito.when(service.consultaAssentos(null)).thenReturn(new PainelAssentosResponse(1, "\"1\"", objectMapper.writeValueAsBytes(assentos)));
         mockMvc.perform(get("/api/assentos")
                         .contentType(APPLICATION_JSON))
                 .andExpect(status().isOk()) // 200
-                .andExpect(jsonPath("$", hasSize(60)));
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].assento", is("1A")))
+                .andExpect(jsonPath("$[0].ocupado", is(false)))
+                .andExpect(jsonPath("$[1].ocupado", is(true)))
+                .andExpect(jsonPath("$[2].emergencia", is(true)));
+    }
+
+    @Test
+    @DisplayName("Quando informado o voo, deve retornar os assentos do voo")
+    void listaAssentos_voo() throws Exception {
+        Mockito.when(service.consultaAssentos("LS1002")).thenReturn(new PainelAssentosResponse(1, "\"1\"", "[]".getBytes()));
+        mockMvc.perform(get("/api/voos/{codigo}/assentos", "LS1002"))
+                .andExpect(status().isOk()) // 200
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Quando o mapa de assentos não mudou desde a última consulta, deve retornar 304 sem corpo")
+    void listaAssentos_naoModificado() throws Exception {
+        PainelAssentosResponse painel = new PainelAssentosResponse(7, "\"7\"", "[]".getBytes());
+        Mockito.when(service.consultaAssentos(null)).thenReturn(painel);
+        mockMvc.perform(get("/api/assentos")
+                        .header("If-None-Match", painel.etag()))
+                .andExpect(status().isNotModified()) // 304
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("Quando recebe um manifesto JSONL, deve importá-lo e retornar o resultado da importação")
+    void importaManifesto() throws Exception {
+        var resultado = new ImportacaoResponse(1, 1, List.of(new LinhaRejeitadaResponse(2, "222.222.222-22", "Data de nascimento não informada")), 5);
+        Mockito.when(service.importaManifesto(Mockito.any(InputStream.class), Mockito.eq(FormatoManifesto.JSONL))).thenReturn(resultado);
+        mockMvc.perform(post("/api/passageiros/importacao")
+                        .content("{\"cpf\":\"111.111.111-11\"}\n{\"cpf\":\"222.222.222-22\"}\n")
+                        .contentType(APPLICATION_NDJSON))
+                .andExpect(status().isOk()) // 200
+                .andExpect(jsonPath("$.importados", is(1)))
+                .andExpect(jsonPath("$.linhasRejeitadas[0].linha", is(2)));
+    }
+
+    @Test
+    @DisplayName("Quando recebe um manifesto em formato não suportado, deve retornar 415")
+    void importaManifesto_formatoNaoSuportado() throws Exception {
+        mockMvc.perform(post("/api/passageiros/importacao")
+                        .content("[]")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isUnsupportedMediaType()); // 415
+        Mockito.verifyNoInteractions(service);
     }
 
     @Test
@@ -112,12 +204,53 @@ class PassageiroControllerTest {
                 .andExpect(jsonPath("$.dataHoraConfirmacao", is(request.dataHoraConfirmacao().toString())));
     }
 
+    @Test
+    @DisplayName("Quando o check-in informa o cabeçalho Idempotency-Key, deve usar o check-in idempotente")
+    void checkin_idempotente() throws Exception {
+        ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", false, null, null);
+        String requestJson = objectMapper.writeValueAsString(request);
+        ConfirmacaoResponse resposta = new ConfirmacaoResponse("123456", LocalDateTime.now());
+        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class), Mockito.eq("quiosque-7-0001"))).thenReturn(resposta);
+        mockMvc.perform(post("/api/passageiros/confirmacao")
+                        .header("Idempotency-Key", "quiosque-7-0001")
+                        .content(requestJson)
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eticket", is(resposta.eticket())));
+        Mockito.verify(service, Mockito.never()).confirmacao(Mockito.any(ConfirmacaoRequest.class));
+    }
+
+    @Test
+    @DisplayName("Quando realiza o check-in automático de um grupo, deve retornar os assentos atribuídos")
+    void checkin_automatico() throws Exception {
+        AtribuicaoAssentosRequest request = new AtribuicaoAssentosRequest(List.of("111.111.111-11", "222.222.222-22"), false);
+        LocalDateTime dataHora = LocalDateTime.now();
+        Mockito.when(service.confirmacaoAutomatica(request)).thenReturn(List.of(
+                new ConfirmacaoLoteResponse("111.111.111-11", "1A", 200, "eticket-1", dataHora, null),
+                new ConfirmacaoLoteResponse("222.222.222-22", "1B", 200, "eticket-2", dataHora, null)));
+        mockMvc.perform(post("/api/passageiros/confirmacao/automatica")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].assento", contains("1A", "1B")));
+    }
+
+    @Test
+    @DisplayName("Quando realiza o check-in automático sem CPFs, deve retornar erro de validação")
+    void checkin_automaticoSemCpfs() throws Exception {
+        mockMvc.perform(post("/api/passageiros/confirmacao/automatica")
+                        .content(objectMapper.writeValueAsString(new AtribuicaoAssentosRequest(List.of(), false)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(service);
+    }
+
     @Test
     @DisplayName("Quando realiza o check-in com passageiro inexistente, deve lançar exceção")
     void checkin_invalidoCPFInexistente() throws Exception {
         ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", false, "123456", LocalDateTime.now());
         String requestJson = objectMapper.writeValueAsString(request);
-        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(new EntityNotFoundException("Passageiro não encontrado!"));
+        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(DominioException.de(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO));
         mockMvc.perform(post("/api/passageiros/confirmacao")
                         .content(requestJson)
                         .contentType(APPLICATION_JSON))
@@ -129,7 +262,7 @@ class PassageiroControllerTest {
     void checkin_invalidoAssentoInexistente() throws Exception {
         ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", false, "123456", LocalDateTime.now());
         String requestJson = objectMapper.writeValueAsString(request);
-        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(new EntityNotFoundException("Assento não encontrado!"));
+        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(DominioException.de(CodigoErro.ASSENTO_NAO_ENCONTRADO));
         mockMvc.perform(post("/api/passageiros/confirmacao")
                         .content(requestJson)
                         .contentType(APPLICATION_JSON))
@@ -141,11 +274,12 @@ class PassageiroControllerTest {
     void checkin_invalidoAssentoOcupado() throws Exception {
         ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", false, "123456", LocalDateTime.now());
         String requestJson = objectMapper.writeValueAsString(request);
-        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(new EntityExistsException("O assento já está ocupado por outro passageiro!"));
+        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(DominioException.de(CodigoErro.ASSENTO_OCUPADO));
         mockMvc.perform(post("/api/passageiros/confirmacao")
                         .content(requestJson)
                         .contentType(APPLICATION_JSON))
-                .andExpect(status().isConflict()); // 409
+                .andExpect(status().isConflict()) // 409
+                .andExpect(content().string(containsString("ocupado por outro passageiro")));
     }
 
     @Test
@@ -153,11 +287,12 @@ class PassageiroControllerTest {
     void checkin_invalidoMenorIdade() throws Exception {
         ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "5A", false, "123456", LocalDateTime.now());
         String requestJson = objectMapper.writeValueAsString(request);
-        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(new RuntimeException("O passageiro é menor de idade e não pode sentar nas fileiras de emergência (5 e 6)"));
+        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(DominioException.de(CodigoErro.MENOR_IDADE_EMERGENCIA));
         mockMvc.perform(post("/api/passageiros/confirmacao")
                         .content(requestJson)
                         .contentType(APPLICATION_JSON))
-                .andExpect(status().isBadRequest()); // 404
+                .andExpect(status().isBadRequest()) // 400
+                .andExpect(content().string(containsString("menor de idade")));
     }
 
     @Test
@@ -165,13 +300,67 @@ class PassageiroControllerTest {
     void checkin_invalidoDespacharMalas() throws Exception {
         ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "5A", false, "123456", LocalDateTime.now());
         String requestJson = objectMapper.writeValueAsString(request);
-        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(new RuntimeException("O passageiro deve obrigatoriamente despachar suas malas nas fileiras de emergência (5 e 6)"));
+        Mockito.when(service.confirmacao(Mockito.any(ConfirmacaoRequest.class))).thenThrow(DominioException.de(CodigoErro.MALAS_EMERGENCIA));
         mockMvc.perform(post("/api/passageiros/confirmacao")
                         .content(requestJson)
                         .contentType(APPLICATION_JSON))
                 .andExpect(status().isBadRequest()); // 404
     }
 
+    @Test
+    @DisplayName("Quando realiza o check-in em lote, deve retornar o resultado de cada confirmação")
+    void checkinLote() throws Exception {
+        var confirmacoes = List.of(
+                new ConfirmacaoRequest("111.111.111-11", "1A", true, null, null),
+                new ConfirmacaoRequest("222.222.222-22", "1A", true, null, null)
+        );
+        String requestJson = objectMapper.writeValueAsString(new ConfirmacaoLoteRequest(confirmacoes));
+        Mockito.when(service.confirmacaoLote(Mockito.anyList())).thenReturn(List.of(
+                new ConfirmacaoLoteResponse("111.111.111-11", "1A", 200, "123456", LocalDateTime.now(), null),
+                new ConfirmacaoLoteResponse("222.222.222-22", "1A", 409, null, null, "O assento já está ocupado por outro passageiro!")
+        ));
+        mockMvc.perform(post("/api/passageiros/confirmacao/lote")
+                        .content(requestJson)
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())  // 200
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].eticket", is("123456")))
+                .andExpect(jsonPath("$[1].status", is(409)));
+    }
+
+    @Test
+    @DisplayName("Quando realiza o check-in em lote com confirmações inválidas, deve retornar erros")
+    void checkinLote_invalido() throws Exception {
+        var confirmacoes = List.of(new ConfirmacaoRequest("", "1A", true, null, null));
+        String requestJson = objectMapper.writeValueAsString(new ConfirmacaoLoteRequest(confirmacoes));
+        mockMvc.perform(post("/api/passageiros/confirmacao/lote")
+                        .content(requestJson)
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isBadRequest())  // 400
+                .andExpect(jsonPath("$[0].campo", is("confirmacoes[0].cpf")));
+    }
+
+    @Test
+    @DisplayName("Deve transmitir os eventos de check-in do voo por SSE a partir do Last-Event-ID")
+    void transmiteConfirmacoes() throws Exception {
+        Mockito.when(service.assinaConfirmacoes(Mockito.eq(6L), Mockito.eq("LS1001"), Mockito.any())).thenAnswer(invocacao -> {
+            TransmissaoCheckin.Destino destino = invocacao.getArgument(2);
+            destino.envia(List.of(new TransmissaoCheckin.Evento(7, "LS1001", "{\"assento\":\"2A\"}")), false);
+            destino.encerra();
+            return (TransmissaoCheckin.Assinatura) () -> {
+            };
+        });
+        MvcResult resultado = mockMvc.perform(get("/api/passageiros/confirmacao/eventos")
+                        .param("voo", "LS1001")
+                        .header("Last-Event-ID", "6")
+                        .accept(TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("id:7\nevent:confirmacao\ndata:{\"assento\":\"2A\"}\n\n")));
+    }
+
     @Test
     @DisplayName("Quando realiza o check-in com dados inválidos, deve retornar erros")
     void checkin_invalido() throws Exception {
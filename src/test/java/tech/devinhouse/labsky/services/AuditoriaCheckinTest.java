@@ -0,0 +1,66 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.devinhouse.labsky.enums.PoliticaTransbordo;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditoriaCheckinTest {
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void inicia() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Com a política DESCARTAR, os eventos publicados com a fila cheia devem ser descartados e contados")
+    void publica_descartar() {
+        AuditoriaCheckin auditoria = new AuditoriaCheckin(registry, 2, PoliticaTransbordo.DESCARTAR, 10, 10);
+        for (int i = 0; i < 5; i++) {
+            auditoria.publica("111.111.111-11", "eticket-" + i, "1A", LocalDateTime.now());
+        }
+        assertEquals(3, descartados("fila_cheia"));
+        assertEquals(2, pendentes());
+    }
+
+    @Test
+    @DisplayName("Com a política AMOSTRAR, a partir de 3/4 da capacidade deve aceitar apenas um a cada N eventos")
+    void publica_amostrar() {
+        AuditoriaCheckin auditoria = new AuditoriaCheckin(registry, 8, PoliticaTransbordo.AMOSTRAR, 2, 10);
+        for (int i = 0; i < 10; i++) {
+            auditoria.publica("111.111.111-11", "eticket-" + i, "1A", LocalDateTime.now());
+        }
+        // 6 eventos até 3/4 da capacidade e, depois disso, metade dos 4 restantes
+        assertEquals(8, pendentes());
+        assertEquals(2, descartados("amostragem"));
+        assertEquals(0, descartados("fila_cheia"));
+    }
+
+    @Test
+    @DisplayName("Os eventos pendentes devem ser gravados e removidos da fila")
+    void grava() {
+        AuditoriaCheckin auditoria = new AuditoriaCheckin(registry, 16, PoliticaTransbordo.BLOQUEAR, 10, 4);
+        for (int i = 0; i < 10; i++) {
+            auditoria.publica("111.111.111-11", "eticket-" + i, "1A", LocalDateTime.now());
+        }
+        auditoria.grava();
+        assertEquals(0, pendentes());
+    }
+
+    private double descartados(String motivo) {
+        return registry.get("auditoria.checkin.descartados").tag("motivo", motivo).counter().count();
+    }
+
+    private double pendentes() {
+        return registry.get("auditoria.checkin.pendentes").gauge().value();
+    }
+
+}
@@ -0,0 +1,48 @@
+package tech.devinhouse.labsky.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpfTest {
+
+    @Test
+    @DisplayName("Deve converter o CPF no mesmo número com ou sem formatação")
+    void converte() {
+        assertEquals(52998224725L, Cpf.converte("529.982.247-25"));
+        assertEquals(52998224725L, Cpf.converte("52998224725"));
+        assertEquals(52998224725L, Cpf.converte(" 529 982 247 25 "));
+        assertEquals(100000000L, Cpf.converte("001.000.000-00"));
+    }
+
+    @Test
+    @DisplayName("Quando o CPF não tiver exatamente 11 dígitos ou tiver outros caracteres, deve ser inválido")
+    void converte_invalido() {
+        assertEquals(Cpf.INVALIDO, Cpf.converte(null));
+        assertEquals(Cpf.INVALIDO, Cpf.converte(""));
+        assertEquals(Cpf.INVALIDO, Cpf.converte("529.982.247-2"));
+        assertEquals(Cpf.INVALIDO, Cpf.converte("529.982.247-255"));
+        assertEquals(Cpf.INVALIDO, Cpf.converte("529.982.247/25"));
+        assertEquals(Cpf.INVALIDO, Cpf.converte("999999999999999999999"));
+    }
+
+    @Test
+    @DisplayName("Deve formatar o número no padrão 000.000.000-00, com os zeros à esquerda")
+    void formata() {
+        assertEquals("529.982.247-25", Cpf.formata(52998224725L));
+        assertEquals("001.000.000-00", Cpf.formata(100000000L));
+        assertEquals("000.000.000-00", Cpf.formata(0));
+    }
+
+    @Test
+    @DisplayName("Deve validar os dígitos verificadores e rejeitar CPFs com todos os dígitos iguais")
+    void digitosValidos() {
+        assertTrue(Cpf.digitosValidos(Cpf.converte("529.982.247-25")));
+        assertTrue(Cpf.digitosValidos(Cpf.converte("111.444.777-35")));
+        assertFalse(Cpf.digitosValidos(Cpf.converte("529.982.247-26")));
+        assertFalse(Cpf.digitosValidos(Cpf.converte("111.111.111-11")));
+        assertFalse(Cpf.digitosValidos(Cpf.INVALIDO));
+    }
+
+}
@@ -0,0 +1,151 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.models.Confirmacao;
+import tech.devinhouse.labsky.records.response.ConfirmacaoResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaCheckinTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final IdempotenciaCheckin idempotencia = new IdempotenciaCheckin(registry, 100, Duration.ofMinutes(10));
+
+    @Test
+    @DisplayName("Quando a chave se repete, deve retornar a mesma resposta sem realizar o check-in novamente")
+    void executa_repeticao() {
+        AtomicInteger checkins = new AtomicInteger();
+
+        ConfirmacaoResponse primeira = idempotencia.executa("111.111.111-11", "chave", () -> resposta(checkins.incrementAndGet()));
+        ConfirmacaoResponse repeticao = idempotencia.executa("111.111.111-11", "chave", () -> resposta(checkins.incrementAndGet()));
+
+        assertSame(primeira, repeticao);
+        assertEquals(1, checkins.get());
+        assertEquals(1, registry.get("checkin.idempotencia").tag("resultado", "repetida").counter().count());
+    }
+
+    @Test
+    @DisplayName("Quando a mesma chave é usada para outro CPF, deve realizar um novo check-in")
+    void executa_outroCpf() {
+        ConfirmacaoResponse primeira = idempotencia.executa("111.111.111-11", "chave", () -> resposta(1));
+        ConfirmacaoResponse outra = idempotencia.executa("222.222.222-22", "chave", () -> resposta(2));
+
+        assertNotEquals(primeira.eticket(), outra.eticket());
+    }
+
+    @Test
+    @DisplayName("Quando o mesmo CPF é informado em outra formatação, deve retornar a mesma resposta")
+    void executa_formatacaoCpf() {
+        ConfirmacaoResponse primeira = idempotencia.executa("111.111.111-11", "chave", () -> resposta(1));
+        ConfirmacaoResponse repeticao = idempotencia.executa("11111111111", "chave", () -> resposta(2));
+
+        assertSame(primeira, repeticao);
+    }
+
+    @Test
+    @DisplayName("Quando o check-in falha, o erro não deve ser armazenado e a repetição deve ser processada")
+    void executa_erroNaoArmazenado() {
+        assertThrows(DominioException.class, () -> idempotencia.executa("111.111.111-11", "chave", () -> {
+            throw DominioException.de(CodigoErro.ASSENTO_OCUPADO);
+        }));
+
+        ConfirmacaoResponse repeticao = idempotencia.executa("111.111.111-11", "chave", () -> resposta(1));
+
+        assertEquals("eticket-1", repeticao.eticket());
+    }
+
+    @Test
+    @DisplayName("Quando as repetições chegam durante o check-in, devem aguardar e receber a resposta do check-in em andamento")
+    void executa_repeticoesConcorrentes() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberado = new CountDownLatch(1);
+        AtomicInteger checkins = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ConfirmacaoResponse> primeira = executor.submit(() -> idempotencia.executa("111.111.111-11", "chave", () -> {
+                iniciado.countDown();
+                aguarda(liberado);
+                return resposta(checkins.incrementAndGet());
+            }));
+            assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+            Future<ConfirmacaoResponse> segunda = executor.submit(() -> idempotencia.executa("111.111.111-11", "chave", () -> resposta(checkins.incrementAndGet())));
+            Future<ConfirmacaoResponse> terceira = executor.submit(() -> idempotencia.executa("111.111.111-11", "chave", () -> resposta(checkins.incrementAndGet())));
+            liberado.countDown();
+
+            assertSame(primeira.get(5, TimeUnit.SECONDS), segunda.get(5, TimeUnit.SECONDS));
+            assertSame(primeira.get(), terceira.get(5, TimeUnit.SECONDS));
+            assertEquals(1, checkins.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Quando o check-in em andamento lança um Error, as repetições que aguardam devem receber o erro")
+    void executa_errorRepeticoesConcorrentes() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberado = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ConfirmacaoResponse> primeira = executor.submit(() -> idempotencia.executa("111.111.111-11", "chave", () -> {
+                iniciado.countDown();
+                aguarda(liberado);
+                throw new StackOverflowError();
+            }));
+            assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+            Future<ConfirmacaoResponse> segunda = executor.submit(() -> idempotencia.executa("111.111.111-11", "chave", () -> resposta(1)));
+            while (registry.get("checkin.idempotencia").tag("resultado", "repetida").counter().count() == 0) {
+                Thread.onSpinWait();
+            }
+            liberado.countDown();
+
+            assertInstanceOf(StackOverflowError.class, assertThrows(ExecutionException.class, () -> primeira.get(5, TimeUnit.SECONDS)).getCause());
+            assertInstanceOf(StackOverflowError.class, assertThrows(ExecutionException.class, () -> segunda.get(5, TimeUnit.SECONDS)).getCause());
+            assertEquals("eticket-2", idempotencia.executa("111.111.111-11", "chave", () -> resposta(2)).eticket());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Na versão reativa, a repetição deve receber a resposta do primeiro check-in e o erro não deve ser armazenado")
+    void executaReativo() {
+        StepVerifier.create(idempotencia.executaReativo("111.111.111-11", "chave", () -> Mono.error(DominioException.de(CodigoErro.ASSENTO_OCUPADO))))
+                .verifyError(DominioException.class);
+
+        ConfirmacaoResponse primeira = idempotencia.executaReativo("111.111.111-11", "chave", () -> Mono.just(resposta(1))).block();
+        StepVerifier.create(idempotencia.executaReativo("111.111.111-11", "chave", () -> Mono.just(resposta(2))))
+                .expectNext(primeira)
+                .verifyComplete();
+    }
+
+    private static ConfirmacaoResponse resposta(int numero) {
+        return new ConfirmacaoResponse(new Confirmacao("eticket-" + numero, "1A", LocalDateTime.now(), false));
+    }
+
+    private static void aguarda(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
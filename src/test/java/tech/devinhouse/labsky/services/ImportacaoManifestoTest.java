@@ -0,0 +1,187 @@
+package tech.devinhouse.labsky.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.devinhouse.labsky.enums.FormatoManifesto;
+import tech.devinhouse.labsky.models.Voo;
+import tech.devinhouse.labsky.records.response.ImportacaoResponse;
+import tech.devinhouse.labsky.repositories.VooRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoManifestoTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private VooRepository vooRepository;
+
+    private ImportacaoManifesto importacao;
+
+    @BeforeEach
+    void inicia() {
+        Mockito.when(vooRepository.findAll()).thenReturn(List.of(new Voo("LS1001", LocalDateTime.now(), 10, "ABCDEF", "5,6")));
+        importacao = new ImportacaoManifesto(jdbcTemplate, new TransactionTemplate(transactionManager), vooRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), 2, "LS1001");
+    }
+
+    @Test
+    @DisplayName("Deve ler o manifesto CSV e inserir os passageiros em lotes do tamanho configurado, no voo padrão quando o voo não for informado")
+    void importa_csv() throws Exception {
+        String manifesto = """
+                cpf,nome,dataNascimento,classificacao,milhas,codigoVoo
+                111.111.111-11,"Buffay, Phoebe",16/02/1967,VIP,100,LS1001
+                222.222.222-22,Ross Geller,1967-10-18,,,
+                333.333.333-33,Rachel Green,05/05/1969,ouro,0,LS1001
+                """;
+
+        List<List<Object[]>> lotes = gravaLotes();
+
+        ImportacaoResponse resultado = importacao.importa(entrada(manifesto), FormatoManifesto.CSV);
+
+        assertEquals(3, resultado.importados());
+        assertEquals(0, resultado.rejeitados());
+        assertEquals(2, lotes.size());
+        assertArrayEquals(new Object[]{"111.111.111-11", "Buffay, Phoebe", Date.valueOf(LocalDate.of(1967, 2, 16)), "VIP", 100, "LS1001"},
+                lotes.get(0).get(0));
+        assertArrayEquals(new Object[]{"222.222.222-22", "Ross Geller", Date.valueOf(LocalDate.of(1967, 10, 18)), "ASSOCIADO", 0, "LS1001"},
+                lotes.get(0).get(1));
+        assertEquals(1, lotes.get(1).size());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar as linhas inválidas do manifesto JSONL informando a linha e o motivo")
+    void importa_jsonlLinhasRejeitadas() throws Exception {
+        String manifesto = """
+                {"cpf":"111.111.111-11","nome":"Phoebe Buffay","dataNascimento":"16/02/1967","codigoVoo":"LS1001"}
+                {"cpf":"222.222.222-22","nome":"Ross Geller"}
+                {"cpf":"333.333.333-33","nome":"Rachel Green","dataNascimento":"05/05/1969","codigoVoo":"XX9999"}
+                {"cpf":
+                """;
+
+        ImportacaoResponse resultado = importacao.importa(entrada(manifesto), FormatoManifesto.JSONL);
+
+        assertEquals(1, resultado.importados());
+        assertEquals(3, resultado.rejeitados());
+        assertEquals(2, resultado.linhasRejeitadas().get(0).linha());
+        assertEquals("Data de nascimento não informada", resultado.linhasRejeitadas().get(0).motivo());
+        assertEquals("Voo não encontrado", resultado.linhasRejeitadas().get(1).motivo());
+        assertEquals(4, resultado.linhasRejeitadas().get(2).linha());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o CPF no formato padrão e rejeitar os CPFs que não tenham 11 dígitos")
+    void importa_formatacaoCpf() throws Exception {
+        String manifesto = """
+                cpf,nome,dataNascimento
+                11111111111,Phoebe Buffay,16/02/1967
+                222.222.222,Ross Geller,18/10/1967
+                """;
+
+        List<List<Object[]>> lotes = gravaLotes();
+
+        ImportacaoResponse resultado = importacao.importa(entrada(manifesto), FormatoManifesto.CSV);
+
+        assertEquals(1, resultado.importados());
+        assertEquals("CPF inválido", resultado.linhasRejeitadas().get(0).motivo());
+        assertEquals("111.111.111-11", lotes.get(0).get(0)[0]);
+    }
+
+    @Test
+    @DisplayName("Quando o banco de dados rejeitar o lote, deve inserir as linhas uma a uma e rejeitar os CPFs já cadastrados")
+    void importa_cpfJaCadastrado() throws Exception {
+        String manifesto = """
+                cpf,nome,dataNascimento
+                111.111.111-11,Phoebe Buffay,16/02/1967
+                222.222.222-22,Ross Geller,18/10/1967
+                """;
+        Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.<Object[]>anyList())).thenThrow(new DuplicateKeyException("cpf"));
+        Mockito.when(jdbcTemplate.update(Mockito.anyString(), Mockito.any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("cpf"))
+                .thenReturn(1);
+
+        ImportacaoResponse resultado = importacao.importa(entrada(manifesto), FormatoManifesto.CSV);
+
+        assertEquals(1, resultado.importados());
+        assertEquals(1, resultado.rejeitados());
+        assertEquals("111.111.111-11", resultado.linhasRejeitadas().get(0).cpf());
+        assertEquals("CPF já cadastrado", resultado.linhasRejeitadas().get(0).motivo());
+    }
+
+    @Test
+    @DisplayName("Quando o voo não for informado e o voo padrão não estiver cadastrado, deve rejeitar a linha")
+    void importa_semVoo() throws Exception {
+        ImportacaoManifesto semVooPadrao = new ImportacaoManifesto(jdbcTemplate, new TransactionTemplate(transactionManager), vooRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), 2, "XX9999");
+        String manifesto = """
+                cpf,nome,dataNascimento,codigoVoo
+                111.111.111-11,Phoebe Buffay,16/02/1967,LS1001
+                222.222.222-22,Ross Geller,18/10/1967,
+                """;
+
+        List<List<Object[]>> lotes = gravaLotes();
+
+        ImportacaoResponse resultado = semVooPadrao.importa(entrada(manifesto), FormatoManifesto.CSV);
+
+        assertEquals(1, resultado.importados());
+        assertEquals(1, resultado.rejeitados());
+        assertEquals(3, resultado.linhasRejeitadas().get(0).linha());
+        assertEquals("Voo não informado", resultado.linhasRejeitadas().get(0).motivo());
+        assertEquals("LS1001", lotes.get(0).get(0)[5]);
+    }
+
+    @Test
+    @DisplayName("Quando o cabeçalho do CSV não tiver as colunas obrigatórias, deve lançar uma exceção")
+    void importa_cabecalhoInvalido() {
+        String manifesto = """
+                cpf,nome
+                111.111.111-11,Phoebe Buffay
+                """;
+
+        assertThrows(IllegalArgumentException.class, () -> importacao.importa(entrada(manifesto), FormatoManifesto.CSV));
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Guarda uma cópia de cada lote gravado, já que a importação reaproveita a mesma lista para o próximo lote.
+     */
+    private List<List<Object[]>> gravaLotes() {
+        List<List<Object[]>> lotes = new ArrayList<>();
+        Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.<Object[]>anyList())).thenAnswer(invocacao -> {
+            List<Object[]> lote = invocacao.getArgument(1);
+            lotes.add(List.copyOf(lote));
+            return new int[lote.size()];
+        });
+        return lotes;
+    }
+
+    private static InputStream entrada(String manifesto) {
+        return new ByteArrayInputStream(manifesto.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
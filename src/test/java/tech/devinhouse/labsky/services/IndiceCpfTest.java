@@ -0,0 +1,90 @@
+package tech.devinhouse.labsky.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceCpfTest {
+
+    private final IndiceCpf indice = new IndiceCpf(null, false);
+
+    @Test
+    @DisplayName("Deve retornar a chave cadastrada para o CPF informado em qualquer formatação")
+    void chave() {
+        indice.inclui("52998224725");
+
+        assertEquals("52998224725", indice.chave(Cpf.converte("529.982.247-25")));
+        assertEquals("52998224725", indice.chave(Cpf.converte("52998224725")));
+        assertTrue(indice.contem(52998224725L));
+    }
+
+    @Test
+    @DisplayName("Quando o CPF não estiver no índice, deve retornar o CPF no formato padrão")
+    void chave_foraDoIndice() {
+        assertEquals("111.444.777-35", indice.chave(11144477735L));
+        assertFalse(indice.contem(11144477735L));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar CPFs inválidos e repetidos")
+    void inclui_invalidoOuRepetido() {
+        indice.inclui("CPF");
+        indice.inclui("111.111.111-11");
+        indice.inclui("11111111111");
+
+        assertEquals(1, indice.tamanho());
+        assertEquals("111.111.111-11", indice.chave(11111111111L));
+    }
+
+    @Test
+    @DisplayName("Deve continuar encontrando todos os CPFs depois de aumentar a tabela")
+    void inclui_crescimento() {
+        for (long numero = 0; numero < 10_000; numero++) {
+            indice.inclui(Cpf.formata(numero * 1_000));
+        }
+
+        assertEquals(10_000, indice.tamanho());
+        for (long numero = 0; numero < 10_000; numero++) {
+            assertTrue(indice.contem(numero * 1_000));
+        }
+        assertFalse(indice.contem(1));
+    }
+
+    @Test
+    @DisplayName("Leituras concorrentes com as inclusões devem encontrar a chave cadastrada de todo CPF já visível")
+    void chave_leituraConcorrente() {
+        CompletableFuture<Void> inclusoes = CompletableFuture.runAsync(() -> {
+            for (long numero = 1; numero <= 20_000; numero++) {
+                indice.inclui(String.valueOf(numero * 1_000 + 10_000_000_000L));
+            }
+        });
+        while (!inclusoes.isDone()) {
+            for (long numero = 1; numero <= 20_000; numero += 97) {
+                long cpf = numero * 1_000 + 10_000_000_000L;
+                if (indice.contem(cpf)) {
+                    assertEquals(String.valueOf(cpf), indice.chave(cpf));
+                }
+            }
+        }
+        inclusoes.join();
+        assertEquals(20_000, indice.tamanho());
+    }
+
+    @Test
+    @DisplayName("Quando o CPF informado não tem 11 dígitos ou tem dígitos verificadores inválidos, deve lançar CPF_INVALIDO")
+    void chave_cpfInvalido() {
+        IndiceCpf validaDigitos = new IndiceCpf(null, true);
+
+        assertEquals(CodigoErro.CPF_INVALIDO, assertThrows(DominioException.class, () -> indice.chave("111.111.111")).getCodigo());
+        assertEquals(CodigoErro.CPF_INVALIDO, assertThrows(DominioException.class, () -> validaDigitos.chave("111.111.111-11")).getCodigo());
+        assertNull(indice.chaveOuNula("CPF"));
+        assertEquals("111.111.111-11", indice.chave("11111111111"));
+        assertEquals("529.982.247-25", validaDigitos.chave("52998224725"));
+    }
+
+}
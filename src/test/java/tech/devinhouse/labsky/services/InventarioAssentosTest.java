@@ -0,0 +1,89 @@
+package tech.devinhouse.labsky.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.models.Voo;
+import tech.devinhouse.labsky.repositories.PassageiroRepository;
+import tech.devinhouse.labsky.repositories.VooRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventarioAssentosTest {
+
+    @Mock
+    private VooRepository vooRepository;
+
+    @Mock
+    private PassageiroRepository passageiroRepository;
+
+    @Spy
+    private PoliticaAssentos politica = PoliticaAssentos.PADRAO;
+
+    @InjectMocks
+    private InventarioAssentos inventario;
+
+    @Test
+    @DisplayName("Deve montar o mapa do voo uma única vez, com os assentos já ocupados no voo")
+    void mapa() {
+        Mockito.when(vooRepository.findById("LS1001"))
+                .thenReturn(Optional.of(new Voo("LS1001", LocalDateTime.now(), 10, "ABCDEF", "5,6")));
+        Mockito.when(passageiroRepository.findAssentosOcupados("LS1001")).thenReturn(List.of("1A", "7D", "assento inválido"));
+
+        MapaAssentos mapa = inventario.mapa("LS1001");
+
+        assertSame(mapa, inventario.mapa("LS1001"));
+        assertTrue(mapa.ocupado(mapa.indice("1A")));
+        assertTrue(mapa.ocupado(mapa.indice("7D")));
+        assertFalse(mapa.ocupado(mapa.indice("1B")));
+        Mockito.verify(vooRepository, Mockito.times(1)).findById("LS1001");
+    }
+
+    @Test
+    @DisplayName("Quando o inventário for recarregado, deve montar novamente o mapa do voo")
+    void recarrega() {
+        Mockito.when(vooRepository.findById("LS1001"))
+                .thenReturn(Optional.of(new Voo("LS1001", LocalDateTime.now(), 10, "ABCDEF", "5,6")));
+        MapaAssentos mapa = inventario.mapa("LS1001");
+        inventario.recarrega();
+        assertNotSame(mapa, inventario.mapa("LS1001"));
+    }
+
+    @Test
+    @DisplayName("Deve montar antecipadamente os mapas de todos os voos cadastrados")
+    void carregaTodos() {
+        Mockito.when(vooRepository.findAll()).thenReturn(List.of(
+                new Voo("LS1001", LocalDateTime.now(), 10, "ABCDEF", "5,6"),
+                new Voo("LS1002", LocalDateTime.now(), 20, "ABCD", "")));
+        Mockito.when(passageiroRepository.findAssentosOcupados("LS1001")).thenReturn(List.of("1A"));
+
+        inventario.carregaTodos();
+
+        MapaAssentos mapa = inventario.mapaCarregado("LS1001");
+        assertNotNull(mapa);
+        assertTrue(mapa.ocupado(mapa.indice("1A")));
+        assertNotNull(inventario.mapaCarregado("LS1002"));
+        assertSame(mapa, inventario.mapa("LS1001"));
+        Mockito.verify(vooRepository, Mockito.never()).findById(Mockito.anyString());
+    }
+
+    @Test
+    @DisplayName("Quando o voo não existir ou o passageiro não tiver voo, deve lançar exceção")
+    void mapa_vooNaoEncontrado() {
+        assertEquals(CodigoErro.VOO_NAO_ENCONTRADO, assertThrows(DominioException.class, () -> inventario.mapa("LS9999")).getCodigo());
+        assertEquals(CodigoErro.VOO_NAO_ENCONTRADO, assertThrows(DominioException.class, () -> inventario.mapa(null)).getCodigo());
+    }
+
+}
@@ -0,0 +1,64 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteAdmissaoTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Quando o cliente esgota a rajada, deve rejeitar as próximas requisições informando quando tentar novamente")
+    void admite_taxaPorCliente() {
+        LimiteAdmissao limite = new LimiteAdmissao("checkin", registry, 10, 0, Duration.ZERO, 0.5, 2);
+
+        assertEquals(LimiteAdmissao.ADMITIDA, limite.admite("quiosque-1"));
+        limite.libera();
+        assertEquals(LimiteAdmissao.ADMITIDA, limite.admite("quiosque-1"));
+        limite.libera();
+        int retentarEm = limite.admite("quiosque-1");
+
+        assertTrue(retentarEm >= 1 && retentarEm <= 2);
+        assertEquals(LimiteAdmissao.ADMITIDA, limite.admite("quiosque-2"));
+        assertEquals(1, registry.get("admissao.requisicoes").tags("grupo", "checkin", "motivo", "taxa").counter().count());
+    }
+
+    @Test
+    @DisplayName("Quando o limite de requisições simultâneas é atingido e não há fila, deve rejeitar até uma permissão ser liberada")
+    void admite_concorrencia() {
+        LimiteAdmissao limite = new LimiteAdmissao("consultas", registry, 1, 0, Duration.ZERO, 0, 0);
+
+        assertEquals(LimiteAdmissao.ADMITIDA, limite.admite("a"));
+        assertEquals(1, limite.admite("b"));
+        assertEquals(1, registry.get("admissao.execucao").gauge().value());
+        limite.libera();
+
+        assertEquals(LimiteAdmissao.ADMITIDA, limite.admite("b"));
+        assertEquals(1, registry.get("admissao.requisicoes").tags("resultado", "rejeitada", "motivo", "concorrencia").counter().count());
+    }
+
+    @Test
+    @DisplayName("Quando uma permissão é liberada durante a espera, a requisição da fila deve ser admitida")
+    void admite_fila() throws Exception {
+        LimiteAdmissao limite = new LimiteAdmissao("checkin", registry, 1, 1, Duration.ofSeconds(5), 0, 0);
+        assertEquals(LimiteAdmissao.ADMITIDA, limite.admite("a"));
+
+        CompletableFuture<Integer> enfileirada = CompletableFuture.supplyAsync(() -> limite.admite("b"));
+        while (registry.get("admissao.fila").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, limite.admite("c"), "a fila já está cheia");
+        limite.libera();
+
+        assertEquals(LimiteAdmissao.ADMITIDA, enfileirada.get(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.get("admissao.requisicoes").tags("resultado", "enfileirada").counter().count());
+    }
+
+}
@@ -0,0 +1,144 @@
+package tech.devinhouse.labsky.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.devinhouse.labsky.enums.ClasseAssento;
+import tech.devinhouse.labsky.models.Voo;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaAssentosTest {
+
+    private static final int SEM_EMERGENCIA = ClasseAssento.TODAS & ~ClasseAssento.EMERGENCIA.bit();
+
+    private final MapaAssentos mapaAssentos = new MapaAssentos(10, "ABCDEF", Set.of(5, 6));
+
+    @Test
+    @DisplayName("Deve converter todos os assentos da aeronave em índices distintos")
+    void indice() {
+        assertEquals(60, mapaAssentos.assentos().size());
+        for (int i = 0; i < mapaAssentos.assentos().size(); i++) {
+            assertEquals(i, mapaAssentos.indice(mapaAssentos.assentos().get(i)));
+        }
+        assertEquals(mapaAssentos.indice("10F"), mapaAssentos.indice("10f"));
+    }
+
+    @Test
+    @DisplayName("Quando o assento não existir na aeronave, deve retornar índice negativo")
+    void indice_assentoInexistente() {
+        assertEquals(-1, mapaAssentos.indice("15A"));
+        assertEquals(-1, mapaAssentos.indice("0A"));
+        assertEquals(-1, mapaAssentos.indice("1G"));
+        assertEquals(-1, mapaAssentos.indice("A"));
+        assertEquals(-1, mapaAssentos.indice("AA"));
+        assertEquals(-1, mapaAssentos.indice("99999999999A"));
+    }
+
+    @Test
+    @DisplayName("Um assento só pode ser ocupado uma vez até ser liberado")
+    void ocupa() {
+        int indice = mapaAssentos.indice("5C");
+        assertTrue(mapaAssentos.ocupa(indice));
+        assertFalse(mapaAssentos.ocupa(indice));
+        assertTrue(mapaAssentos.ocupado(indice));
+        assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("5D")));
+        mapaAssentos.libera(indice);
+        assertFalse(mapaAssentos.ocupado(indice));
+        assertTrue(mapaAssentos.ocupa(indice));
+    }
+
+    @Test
+    @DisplayName("Deve ocupar os primeiros assentos livres e adjacentes da mesma fileira, fora das fileiras de emergência quando não permitidas")
+    void ocupaAdjacentes() {
+        for (int fileira = 1; fileira <= 4; fileira++) {
+            mapaAssentos.ocupa(mapaAssentos.indice(fileira + "B"));
+            mapaAssentos.ocupa(mapaAssentos.indice(fileira + "E"));
+        }
+
+        assertEquals(mapaAssentos.indice("1C"), mapaAssentos.ocupaAdjacentes(2, SEM_EMERGENCIA));
+        assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("1D")));
+        assertEquals(mapaAssentos.indice("7A"), mapaAssentos.ocupaAdjacentes(3, SEM_EMERGENCIA));
+        assertEquals(mapaAssentos.indice("5A"), mapaAssentos.ocupaAdjacentes(6, ClasseAssento.TODAS));
+        assertEquals(mapaAssentos.indice("1A"), mapaAssentos.ocupaAdjacentes(1, SEM_EMERGENCIA));
+        assertEquals(-1, mapaAssentos.ocupaAdjacentes(7, ClasseAssento.TODAS));
+    }
+
+    @Test
+    @DisplayName("Quando nenhuma fileira tiver assentos livres suficientes, não deve ocupar nenhum assento")
+    void ocupaAdjacentes_semAssentos() {
+        MapaAssentos mapa = new MapaAssentos(1, "ABC", Set.of());
+        mapa.ocupa(mapa.indice("1B"));
+        long versao = mapa.versao();
+
+        assertEquals(-1, mapa.ocupaAdjacentes(2, ClasseAssento.TODAS));
+        assertFalse(mapa.ocupado(mapa.indice("1A")));
+        assertEquals(versao, mapa.versao());
+    }
+
+    @Test
+    @DisplayName("Quando o grupo for maior que a fileira, deve dividi-lo em blocos de tamanhos próximos em fileiras consecutivas")
+    void ocupaGrupo() {
+        mapaAssentos.ocupa(mapaAssentos.indice("2C"));
+        mapaAssentos.ocupa(mapaAssentos.indice("3B"));
+
+        assertArrayEquals(indices("1A", "1B", "1C", "1D", "2D", "2E", "2F"), mapaAssentos.ocupaGrupo(7, SEM_EMERGENCIA));
+        assertArrayEquals(indices("7A", "7B", "7C", "7D", "7E", "8A", "8B", "8C", "8D", "8E"), mapaAssentos.ocupaGrupo(10, SEM_EMERGENCIA));
+        assertArrayEquals(indices("3C", "3D", "3E"), mapaAssentos.ocupaGrupo(3, SEM_EMERGENCIA));
+        assertArrayEquals(indices("9A", "9B", "9C", "9D", "9E", "10A", "10B", "10C", "10D", "10E"), mapaAssentos.ocupaGrupo(10, SEM_EMERGENCIA));
+
+        long versao = mapaAssentos.versao();
+        assertEquals(0, mapaAssentos.ocupaGrupo(7, SEM_EMERGENCIA).length);
+        assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("4A")));
+        assertEquals(versao, mapaAssentos.versao());
+    }
+
+    @Test
+    @DisplayName("Somente as fileiras 5 e 6 devem ser de emergência")
+    void emergencia() {
+        assertTrue(mapaAssentos.emergencia(mapaAssentos.indice("5A")));
+        assertTrue(mapaAssentos.emergencia(mapaAssentos.indice("6F")));
+        assertFalse(mapaAssentos.emergencia(mapaAssentos.indice("4F")));
+        assertFalse(mapaAssentos.emergencia(mapaAssentos.indice("10A")));
+    }
+
+    @Test
+    @DisplayName("Deve compilar as classes de assento da política nas fileiras, com a emergência tendo precedência sobre a dianteira")
+    void classe() {
+        MapaAssentos mapa = new MapaAssentos(10, "ABCDEF", Set.of(2, 6), new PoliticaAssentos(3, Map.of()));
+
+        assertEquals(ClasseAssento.DIANTEIRA, mapa.classe(mapa.indice("1A")));
+        assertEquals(ClasseAssento.EMERGENCIA, mapa.classe(mapa.indice("2F")));
+        assertEquals(ClasseAssento.DIANTEIRA, mapa.classe(mapa.indice("3C")));
+        assertEquals(ClasseAssento.PADRAO, mapa.classe(mapa.indice("4A")));
+        assertTrue(mapa.permitido(mapa.indice("1A"), ClasseAssento.DIANTEIRA.bit()));
+        assertFalse(mapa.permitido(mapa.indice("4A"), ClasseAssento.DIANTEIRA.bit()));
+        assertEquals(mapa.indice("4A"), mapa.ocupaAdjacentes(6, ClasseAssento.PADRAO.bit()));
+    }
+
+    @Test
+    @DisplayName("Deve montar o mapa com a configuração da aeronave do voo")
+    void de() {
+        MapaAssentos mapa = MapaAssentos.de(new Voo("LS1002", LocalDateTime.now(), 30, "ABCDEFGHJK", "12, 14"));
+        assertEquals(300, mapa.assentos().size());
+        assertEquals(mapa.assentos().size() - 1, mapa.indice("30K"));
+        assertEquals(-1, mapa.indice("31A"));
+        assertEquals(-1, mapa.indice("1I"));
+        assertTrue(mapa.emergencia(mapa.indice("12A")));
+        assertFalse(mapa.emergencia(mapa.indice("13A")));
+        assertTrue(mapa.emergencia(mapa.indice("14K")));
+        assertFalse(mapa.emergencia(mapa.indice("5A")));
+    }
+
+    private int[] indices(String... assentos) {
+        int[] indices = new int[assentos.length];
+        for (int i = 0; i < assentos.length; i++) {
+            indices[i] = mapaAssentos.indice(assentos[i]);
+        }
+        return indices;
+    }
+
+}
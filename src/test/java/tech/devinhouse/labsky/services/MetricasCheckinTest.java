@@ -0,0 +1,45 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasCheckinTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasCheckin metricas = new MetricasCheckin(registry);
+
+    @Test
+    @DisplayName("Deve registrar os temporizadores de todas as etapas e resultados na construção")
+    void registraNaConstrucao() {
+        assertNotNull(registry.find("checkin.etapa").tags("etapa", MetricasCheckin.GRAVACAO, "resultado", "sucesso").timer());
+        assertNotNull(registry.find("checkin.etapa").tags("etapa", MetricasCheckin.GRAVACAO, "resultado", "409").timer());
+        assertNotNull(registry.find("checkin.etapa").tags("etapa", MetricasCheckin.VALIDACAO_REGRAS, "resultado", "400_menor_idade").timer());
+        assertNotNull(registry.find("checkin.etapa").tags("etapa", MetricasCheckin.BUSCA_PASSAGEIRO, "resultado", "erro").timer());
+    }
+
+    @Test
+    @DisplayName("Deve medir a etapa no temporizador do resultado, sem registrar novos temporizadores")
+    void mede() {
+        int temporizadores = registry.getMeters().size();
+
+        assertEquals(1, metricas.mede(MetricasCheckin.GRAVACAO, () -> 1));
+        assertThrows(DominioException.class, () -> metricas.mede(MetricasCheckin.GRAVACAO, () -> {
+            throw DominioException.de(CodigoErro.ASSENTO_OCUPADO);
+        }));
+        assertThrows(IllegalStateException.class, () -> metricas.mede(MetricasCheckin.GRAVACAO, () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(temporizadores, registry.getMeters().size());
+        assertEquals(1, registry.get("checkin.etapa").tags("etapa", MetricasCheckin.GRAVACAO, "resultado", "sucesso").timer().count());
+        assertEquals(1, registry.get("checkin.etapa").tags("etapa", MetricasCheckin.GRAVACAO, "resultado", "409").timer().count());
+        assertEquals(1, registry.get("checkin.etapa").tags("etapa", MetricasCheckin.GRAVACAO, "resultado", "erro").timer().count());
+        assertThrows(IllegalArgumentException.class, () -> metricas.mede("desconhecida", () -> 1));
+    }
+
+}
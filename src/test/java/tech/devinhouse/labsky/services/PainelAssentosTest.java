@@ -0,0 +1,72 @@
+package tech.devinhouse.labsky.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.devinhouse.labsky.records.response.PainelAssentosResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PainelAssentosTest {
+
+    @Mock
+    private InventarioAssentos inventario;
+
+    private final MapaAssentos mapaAssentos = new MapaAssentos(10, "ABCDEF", Set.of(5, 6));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PainelAssentos painelAssentos;
+
+    @BeforeEach
+    void inicia() {
+        painelAssentos = new PainelAssentos(inventario, objectMapper);
+        Mockito.when(inventario.mapa("LS1001")).thenReturn(mapaAssentos);
+    }
+
+    @Test
+    @DisplayName("Enquanto a ocupação não mudar, deve reaproveitar o mapa de assentos já serializado")
+    void consulta_semAlteracao() {
+        PainelAssentosResponse painel = painelAssentos.consulta("LS1001");
+        assertSame(painel, painelAssentos.consulta("LS1001"));
+        assertSame(painel.corpo(), painelAssentos.consulta("LS1001").corpo());
+    }
+
+    @Test
+    @DisplayName("Quando um assento for ocupado ou liberado, deve gerar um novo mapa com outro ETag")
+    void consulta_alteracaoOcupacao() throws Exception {
+        PainelAssentosResponse livre = painelAssentos.consulta("LS1001");
+        int indice = mapaAssentos.indice("3C");
+
+        mapaAssentos.ocupa(indice);
+        PainelAssentosResponse ocupado = painelAssentos.consulta("LS1001");
+        assertNotEquals(livre.etag(), ocupado.etag());
+        assertTrue(objectMapper.readTree(ocupado.corpo()).get(indice).get("ocupado").asBoolean());
+
+        mapaAssentos.libera(indice);
+        mapaAssentos.libera(indice);
+        PainelAssentosResponse liberado = painelAssentos.consulta("LS1001");
+        assertNotEquals(ocupado.etag(), liberado.etag());
+        assertSame(liberado, painelAssentos.consulta("LS1001"));
+        assertFalse(objectMapper.readTree(liberado.corpo()).get(indice).get("ocupado").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Quando o inventário for recarregado, deve gerar um novo mapa mesmo com a mesma versão")
+    void consulta_inventarioRecarregado() {
+        PainelAssentosResponse painel = painelAssentos.consulta("LS1001");
+        Mockito.when(inventario.mapa("LS1001")).thenReturn(new MapaAssentos(10, "ABCDEF", Set.of(5, 6)));
+        PainelAssentosResponse recarregado = painelAssentos.consulta("LS1001");
+        assertEquals(painel.versao(), recarregado.versao());
+        assertNotSame(painel, recarregado);
+    }
+
+}
@@ -0,0 +1,199 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
+import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa a implementação reativa contra um banco H2 em memória acessado pelo R2DBC.
+ */
+@ExtendWith(MockitoExtension.class)
+class PassageiroServiceReativoTest {
+
+    private static final String TABELA = """
+            CREATE TABLE passageiros (
+                cpf VARCHAR(255) PRIMARY KEY, nome VARCHAR(255), data_nascimento DATE, classificacao VARCHAR(255), milhas INT,
+                voo_codigo VARCHAR(255), eticket VARCHAR(255), assento VARCHAR(255), data_hora_confirmacao TIMESTAMP,
+                malas_despachadas BOOLEAN, versao BIGINT DEFAULT 0 NOT NULL,
+                CONSTRAINT uk_passageiros_voo_assento UNIQUE (voo_codigo, assento))""";
+
+    @Mock
+    private InventarioAssentos inventario;
+
+    @Mock
+    private PainelAssentos painelAssentos;
+
+    @Mock
+    private RegistroMilhas registroMilhas;
+
+    @Mock
+    private AuditoriaCheckin auditoria;
+
+    @Mock
+    private TransmissaoCheckin transmissao;
+
+    private final MapaAssentos mapaAssentos = new MapaAssentos(10, "ABCDEF", Set.of(5, 6));
+
+    private final CacheConsultaCpf cache = new CacheConsultaCpf(100, Duration.ofMinutes(5));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private DatabaseClient databaseClient;
+
+    private PassageiroServiceReativo service;
+
+    @BeforeEach
+    void inicia() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1"));
+        databaseClient.sql(TABELA).then().block();
+        insere("111.111.111-11", "Phoebe Buffay", LocalDate.of(1963, 7, 30), null);
+        insere("222.222.222-22", "Emma Geller", LocalDate.now().minusYears(10), null);
+        insere("333.333.333-33", "Ross Geller", LocalDate.of(1966, 11, 2), "3C");
+        Mockito.lenient().when(inventario.mapaCarregado("LS1001")).thenReturn(mapaAssentos);
+        service = new PassageiroServiceReativo(databaseClient, inventario, painelAssentos, cache, new IndiceCpf(null, false), registroMilhas, auditoria,
+                new IdempotenciaCheckin(registry, 100, Duration.ofMinutes(10)), new RetentativaCheckin(registry, 3), new MetricasCheckin(registry),
+                transmissao, 4096, "LS1001");
+    }
+
+    @Test
+    @DisplayName("Quando realiza o check-in com dados válidos, deve gravar a confirmação, ocupar o assento e lançar as milhas")
+    void confirmacao() {
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("111.111.111-11", "2a", false, null, null)))
+                .assertNext(resposta -> assertNotNull(resposta.eticket()))
+                .verifyComplete();
+
+        assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("2A")));
+        assertEquals("2A", databaseClient.sql("SELECT assento FROM passageiros WHERE cpf = '111.111.111-11'")
+                .map(linha -> linha.get("assento", String.class)).one().block());
+        Mockito.verify(registroMilhas).registra(Mockito.eq("111.111.111-11"), Mockito.eq(80), Mockito.anyString());
+        Mockito.verify(auditoria).publica(Mockito.eq("111.111.111-11"), Mockito.anyString(), Mockito.eq("2A"), Mockito.any(LocalDateTime.class));
+        Mockito.verify(transmissao).publica(Mockito.argThat(evento -> evento.assento().equals("2A") && evento.codigoVoo().equals("LS1001")));
+        for (String etapa : List.of(MetricasCheckin.BUSCA_PASSAGEIRO, MetricasCheckin.VALIDACAO_REGRAS, MetricasCheckin.OCUPACAO_ASSENTO,
+                MetricasCheckin.GRAVACAO, MetricasCheckin.MAPEAMENTO_RESPOSTA)) {
+            assertEquals(1, registry.get("checkin.etapa").tags("etapa", etapa, "resultado", "sucesso").timer().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Quando a versão do passageiro mudar entre a leitura e a gravação, deve repetir o check-in como a implementação bloqueante")
+    void confirmacao_conflitoVersao() {
+        Mockito.when(inventario.mapaCarregado("LS1001"))
+                .thenAnswer(invocacao -> alteraVersao("111.111.111-11"))
+                .thenReturn(mapaAssentos);
+
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("111.111.111-11", "2A", false, null, null)))
+                .assertNext(resposta -> assertNotNull(resposta.eticket()))
+                .verifyComplete();
+
+        assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("2A")));
+        assertEquals(1, registry.get("checkin.retentativas").counter().count());
+        assertEquals(1, registry.get("checkin.etapa").tags("etapa", MetricasCheckin.GRAVACAO, "resultado", "erro").timer().count());
+    }
+
+    @Test
+    @DisplayName("Quando a versão do passageiro mudar em todas as tentativas, deve rejeitar com CHECKIN_ALTERADO e liberar o assento")
+    void confirmacao_conflitoVersaoEsgotado() {
+        Mockito.when(inventario.mapaCarregado("LS1001")).thenAnswer(invocacao -> alteraVersao("111.111.111-11"));
+
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("111.111.111-11", "2A", false, null, null)))
+                .verifyErrorSatisfies(e -> assertEquals(CodigoErro.CHECKIN_ALTERADO, ((DominioException) e).getCodigo()));
+
+        assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("2A")));
+        assertEquals(3, registry.get("checkin.conflitos").tag("tipo", "versao").counter().count());
+        Mockito.verifyNoInteractions(registroMilhas);
+    }
+
+    @Test
+    @DisplayName("Quando o passageiro já realizou o check-in, deve rejeitar com o mesmo código da implementação bloqueante")
+    void confirmacao_duplicada() {
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("333.333.333-33", "1A", false, null, null)))
+                .verifyErrorSatisfies(e -> assertEquals(CodigoErro.CHECKIN_DUPLICADO, ((DominioException) e).getCodigo()));
+        assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("1A")));
+    }
+
+    @Test
+    @DisplayName("Quando o passageiro menor de idade escolhe a fileira de emergência, deve rejeitar o check-in")
+    void confirmacao_menorIdade() {
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("222.222.222-22", "5A", true, null, null)))
+                .verifyErrorSatisfies(e -> assertEquals(CodigoErro.MENOR_IDADE_EMERGENCIA, ((DominioException) e).getCodigo()));
+        Mockito.verifyNoInteractions(registroMilhas, auditoria, transmissao);
+    }
+
+    @Test
+    @DisplayName("Quando o CPF não existe, deve rejeitar o check-in")
+    void confirmacao_cpfInexistente() {
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("999.999.999-99", "1A", false, null, null)))
+                .verifyErrorSatisfies(e -> assertEquals(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO, ((DominioException) e).getCodigo()));
+    }
+
+    @Test
+    @DisplayName("Quando o banco de dados rejeita o assento já gravado por outro passageiro, o assento deve continuar ocupado no mapa")
+    void confirmacao_assentoGravado() {
+        StepVerifier.create(service.confirmacao(new ConfirmacaoRequest("111.111.111-11", "3C", false, null, null)))
+                .verifyErrorSatisfies(e -> assertEquals(CodigoErro.ASSENTO_OCUPADO, ((DominioException) e).getCodigo()));
+        assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("3C")));
+        assertEquals(1, registry.get("checkin.conflitos").tag("tipo", "assento").counter().count());
+        Mockito.verifyNoInteractions(registroMilhas);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o passageiro pelo CPF e armazenar a consulta no cache compartilhado")
+    void listaPassageiroPeloCpf() {
+        StepVerifier.create(service.listaPassageiroPeloCpf("111.111.111-11"))
+                .assertNext(consulta -> assertEquals("Phoebe Buffay", consulta.nome()))
+                .verifyComplete();
+        assertNotNull(cache.consulta("111.111.111-11"));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o passageiro pelo CPF sem formatação e rejeitar o CPF inválido, como a implementação bloqueante")
+    void listaPassageiroPeloCpf_formatacao() {
+        StepVerifier.create(service.listaPassageiroPeloCpf("11111111111"))
+                .assertNext(consulta -> assertEquals("111.111.111-11", consulta.cpf()))
+                .verifyComplete();
+        StepVerifier.create(service.listaPassageiroPeloCpf("111.111.111"))
+                .verifyErrorSatisfies(e -> assertEquals(CodigoErro.CPF_INVALIDO, ((DominioException) e).getCodigo()));
+    }
+
+    private void insere(String cpf, String nome, LocalDate dataNascimento, String assento) {
+        DatabaseClient.GenericExecuteSpec insercao = databaseClient.sql("""
+                        INSERT INTO passageiros (cpf, nome, data_nascimento, classificacao, milhas, voo_codigo, eticket, assento)
+                        VALUES (:cpf, :nome, :dataNascimento, 'OURO', 100, 'LS1001', :eticket, :assento)""")
+                .bind("cpf", cpf)
+                .bind("nome", nome)
+                .bind("dataNascimento", dataNascimento);
+        insercao = assento == null
+                ? insercao.bindNull("eticket", String.class).bindNull("assento", String.class)
+                : insercao.bind("eticket", UUID.randomUUID().toString()).bind("assento", assento);
+        insercao.then().block();
+    }
+
+    /**
+     * Simula outra requisição alterando o passageiro depois da leitura do check-in.
+     */
+    private MapaAssentos alteraVersao(String cpf) {
+        databaseClient.sql("UPDATE passageiros SET versao = versao + 1 WHERE cpf = :cpf").bind("cpf", cpf).then().block();
+        return mapaAssentos;
+    }
+
+}
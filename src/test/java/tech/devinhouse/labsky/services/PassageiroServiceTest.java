@@ -1,7 +1,7 @@
 package tech.devinhouse.labsky.services;
 
-import jakarta.persistence.EntityExistsException;
-import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,18 +9,36 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.exceptions.DominioException;
 import tech.devinhouse.labsky.models.Confirmacao;
 import tech.devinhouse.labsky.models.Passageiro;
+import tech.devinhouse.labsky.records.request.AtribuicaoAssentosRequest;
 import tech.devinhouse.labsky.records.request.ConfirmacaoRequest;
+import tech.devinhouse.labsky.records.response.ConfirmacaoLoteResponse;
 import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.records.response.PaginaPassageirosResponse;
+import tech.devinhouse.labsky.records.response.PassageiroResponse;
 import tech.devinhouse.labsky.repositories.PassageiroRepository;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,19 +48,61 @@ class PassageiroServiceTest {
     @Mock
     private PassageiroRepository repository;
 
+    @Mock
+    private RegistroMilhas registroMilhas;
+
+    @Mock
+    private AuditoriaCheckin auditoria;
+
+    @Mock
+    private InventarioAssentos inventario;
+
+    @Mock
+    private TransmissaoCheckin transmissao;
+
+    private final MapaAssentos mapaAssentos = new MapaAssentos(10, "ABCDEF", Set.of(5, 6));
+
+    @Spy
+    private CacheConsultaCpf cache = new CacheConsultaCpf(100, Duration.ofMinutes(5));
+
+    @Spy
+    private RetentativaCheckin retentativa = new RetentativaCheckin(new SimpleMeterRegistry(), 3);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasCheckin metricas = new MetricasCheckin(registry);
+
+    @Spy
+    private IndiceCpf indice = new IndiceCpf(null, false);
+
+    @Mock
+    private TransactionTemplate transacao;
+
     @InjectMocks
     private PassageiroService service;
 
+    @BeforeEach
+    void configuraVoo() {
+        Mockito.lenient().when(inventario.mapa(Mockito.any())).thenReturn(mapaAssentos);
+        Mockito.lenient().when(transacao.execute(Mockito.any())).thenAnswer(invocacao ->
+                invocacao.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+        Mockito.lenient().doAnswer(invocacao -> {
+            invocacao.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transacao).executeWithoutResult(Mockito.any());
+    }
+
     @Test
     @DisplayName("Quando há registros de passageiros, deve retornar lista com valores")
     void listaPassageiros() {
-        List<Passageiro> passageiros = List.of(
-                new Passageiro("111.111.111-11", "Halan Germano Bacca"),
-                new Passageiro("222.222.222-22", "Luciana Lamim")
+        List<PassageiroResponse> passageiros = List.of(
+                new PassageiroResponse(new Passageiro("111.111.111-11", "Halan Germano Bacca")),
+                new PassageiroResponse(new Passageiro("222.222.222-22", "Luciana Lamim"))
         );
-        Mockito.when(repository.findAll()).thenReturn(passageiros);
+        Mockito.when(repository.findListagem()).thenReturn(passageiros);
 
-        List<Passageiro> lista = service.listaPassageiros();
+        List<PassageiroResponse> lista = service.listaPassageiros();
 
         assertNotNull(lista);
         assertFalse(lista.isEmpty());
@@ -52,28 +112,91 @@ class PassageiroServiceTest {
     @Test
     @DisplayName("Quando não há registros de passageiros, deve retornar uma lista vazia")
     void listaPassageiros_semRegistros() {
-        List<Passageiro> lista = service.listaPassageiros();
+        List<PassageiroResponse> lista = service.listaPassageiros();
         assertNotNull(lista);
         assertTrue(lista.isEmpty());
     }
 
+    @Test
+    @DisplayName("Quando a página estiver completa, deve retornar o CPF do último passageiro como cursor da próxima página")
+    void listaPassageirosPaginados() {
+        List<Passageiro> passageiros = List.of(
+                new Passageiro("111.111.111-11", "Halan Germano Bacca"),
+                new Passageiro("222.222.222-22", "Luciana Lamim")
+        );
+        Mockito.when(repository.findPagina(Mockito.eq(""), Mockito.eq(Classificacao.VIP), Mockito.isNull(), Mockito.any(Pageable.class)))
+                .thenReturn(passageiros);
+
+        PaginaPassageirosResponse pagina = service.listaPassageirosPaginados(null, 2, Classificacao.VIP, null);
+
+        assertEquals(2, pagina.passageiros().size());
+        assertEquals("222.222.222-22", pagina.proximoCursor());
+    }
+
+    @Test
+    @DisplayName("Quando a página não estiver completa, não deve haver cursor para a próxima página")
+    void listaPassageirosPaginados_ultimaPagina() {
+        List<Passageiro> passageiros = List.of(new Passageiro("333.333.333-33", "Halan Germano Bacca"));
+        Mockito.when(repository.findPagina(Mockito.eq("222.222.222-22"), Mockito.isNull(), Mockito.eq(true), Mockito.any(Pageable.class)))
+                .thenReturn(passageiros);
+
+        PaginaPassageirosResponse pagina = service.listaPassageirosPaginados("222.222.222-22", 2, null, true);
+
+        assertEquals(1, pagina.passageiros().size());
+        assertNull(pagina.proximoCursor());
+    }
+
     @Test
     @DisplayName("Quando existe passageiro com o CPF informado, deve retornar o passageiro")
     void listaPassageiroPeloCPF() {
         String cpf = "111.111.111-11";
-        Passageiro passageiro = new Passageiro(cpf, "Halan Germano Bacca");
-        Mockito.when(repository.findById(Mockito.anyString()))
-                .thenReturn(Optional.of(passageiro));
-        ConsultaCPFResponse resultado = service.listaPassageiroPeloCpf(passageiro.getCpf());
+        ConsultaCPFResponse consulta = new ConsultaCPFResponse(new Passageiro(cpf, "Halan Germano Bacca"));
+        Mockito.when(repository.findConsulta(Mockito.anyString()))
+                .thenReturn(Optional.of(consulta));
+        ConsultaCPFResponse resultado = service.listaPassageiroPeloCpf(cpf);
         assertNotNull(resultado);
         assertEquals(cpf, resultado.cpf());
     }
 
+    @Test
+    @DisplayName("Quando o passageiro já foi consultado, deve retornar a consulta em cache sem acessar o banco de dados")
+    void listaPassageiroPeloCPF_cache() {
+        String cpf = "111.111.111-11";
+        Mockito.when(repository.findConsulta(cpf))
+                .thenReturn(Optional.of(new ConsultaCPFResponse(new Passageiro(cpf, "Halan Germano Bacca"))));
+        ConsultaCPFResponse primeira = service.listaPassageiroPeloCpf(cpf);
+        ConsultaCPFResponse segunda = service.listaPassageiroPeloCpf(cpf);
+        assertSame(primeira, segunda);
+        Mockito.verify(repository, Mockito.times(1)).findConsulta(cpf);
+    }
+
+    @Test
+    @DisplayName("Quando o CPF é informado sem formatação, deve consultar e armazenar em cache pela chave cadastrada")
+    void listaPassageiroPeloCPF_semFormatacao() {
+        String cpf = "111.111.111-11";
+        Mockito.when(repository.findConsulta(cpf))
+                .thenReturn(Optional.of(new ConsultaCPFResponse(new Passageiro(cpf, "Halan Germano Bacca"))));
+        ConsultaCPFResponse primeira = service.listaPassageiroPeloCpf("11111111111");
+        ConsultaCPFResponse segunda = service.listaPassageiroPeloCpf(cpf);
+        assertSame(primeira, segunda);
+        assertTrue(indice.contem(11111111111L));
+        Mockito.verify(repository, Mockito.times(1)).findConsulta(cpf);
+    }
+
+    @Test
+    @DisplayName("Quando o CPF informado é inválido, deve lançar exceção sem acessar o banco de dados")
+    void listaPassageiroPeloCPF_invalido() {
+        DominioException erro = assertThrows(DominioException.class, () -> service.listaPassageiroPeloCpf("111.111.111"));
+        assertEquals(CodigoErro.CPF_INVALIDO, erro.getCodigo());
+        Mockito.verifyNoInteractions(repository);
+    }
+
     @Test
     @DisplayName("Quando não existe passageiro com o CPF informado, deve lançar exceção")
     void listaPassageiroPeloCPF_naoEncontrado() {
         String cpf = "111.111.111-11";
-        assertThrows(EntityNotFoundException.class, () -> service.listaPassageiroPeloCpf(cpf));
+        DominioException erro = assertThrows(DominioException.class, () -> service.listaPassageiroPeloCpf(cpf));
+        assertEquals(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO, erro.getCodigo());
     }
 
     @Nested
@@ -83,7 +206,8 @@ class PassageiroServiceTest {
         @DisplayName("Quando não existe passageiro com o CPF informado, deve lançar exceção")
         void confirmacao_passageiroNaoEncontrado() {
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
-            assertThrows(EntityNotFoundException.class, () -> service.confirmacao(request));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.PASSAGEIRO_NAO_ENCONTRADO, erro.getCodigo());
         }
 
         @Test
@@ -93,9 +217,10 @@ class PassageiroServiceTest {
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(true);
-            assertThrows(EntityExistsException.class, () -> service.confirmacao(request));
+            mapaAssentos.ocupa(mapaAssentos.indice("1A"));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.ASSENTO_OCUPADO, erro.getCodigo());
+            assertEquals(0, erro.getStackTrace().length);
         }
 
         @Test
@@ -105,9 +230,8 @@ class PassageiroServiceTest {
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "15A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
-            assertThrows(EntityNotFoundException.class, () -> service.confirmacao(request));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.ASSENTO_NAO_ENCONTRADO, erro.getCodigo());
         }
 
         @Test
@@ -117,9 +241,20 @@ class PassageiroServiceTest {
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "5A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
-            assertThrows(RuntimeException.class, () -> service.confirmacao(request));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.MENOR_IDADE_EMERGENCIA, erro.getCodigo());
+        }
+
+        @Test
+        @DisplayName("Quando o passageiro completar 18 anos somente amanhã, ainda deve ser considerado menor de idade nas fileiras de emergência")
+        void confirmacao_menorIdadeAniversario() {
+            Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now().minusYears(18).plusDays(1), Classificacao.VIP, 100);
+            ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "5A", true, "123456", LocalDateTime.now());
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenReturn(Optional.of(passageiro));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.MENOR_IDADE_EMERGENCIA, erro.getCodigo());
+            assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("5A")));
         }
 
         @Test
@@ -129,9 +264,94 @@ class PassageiroServiceTest {
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "5A", false, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.MALAS_EMERGENCIA, erro.getCodigo());
+        }
+
+        @Test
+        @DisplayName("Quando realizar check-in com informações corretas, deve ocupar o assento no mapa de assentos")
+        void confirmacao_ocupaAssento() {
+            Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "10a", true, "123456", LocalDateTime.now());
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenReturn(Optional.of(passageiro));
+            service.confirmacao(request);
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("10A")));
+            assertEquals("10A", passageiro.getConfirmacao().getAssento());
+            Mockito.verify(transmissao).publica(Mockito.argThat(evento -> evento.assento().equals("10A") && evento.versaoAssentos() == mapaAssentos.versao()));
+        }
+
+        @Test
+        @DisplayName("Quando realizar check-in, deve registrar o tempo de cada etapa com o resultado")
+        void confirmacao_metricasEtapas() {
+            Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.VIP, 100);
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenReturn(Optional.of(passageiro));
+            assertThrows(RuntimeException.class, () -> service.confirmacao(new ConfirmacaoRequest("111.111.111-11", "5A", true, "123456", LocalDateTime.now())));
+            service.confirmacao(new ConfirmacaoRequest("111.111.111-11", "10A", true, "123456", LocalDateTime.now()));
+
+            assertEquals(1, registry.get("checkin.etapa").tags("etapa", MetricasCheckin.VALIDACAO_REGRAS, "resultado", "400_menor_idade").timer().count());
+            assertEquals(2, registry.get("checkin.etapa").tags("etapa", MetricasCheckin.BUSCA_PASSAGEIRO, "resultado", "sucesso").timer().count());
+            for (String etapa : List.of(MetricasCheckin.VALIDACAO_REGRAS, MetricasCheckin.OCUPACAO_ASSENTO, MetricasCheckin.GRAVACAO, MetricasCheckin.MAPEAMENTO_RESPOSTA)) {
+                assertEquals(1, registry.get("checkin.etapa").tags("etapa", etapa, "resultado", "sucesso").timer().count());
+            }
+        }
+
+        @Test
+        @DisplayName("Quando ocorrer erro ao salvar o check-in, deve liberar o assento no mapa de assentos")
+        void confirmacao_erroAoSalvar() {
+            Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenReturn(Optional.of(passageiro));
+            Mockito.when(repository.save(Mockito.any(Passageiro.class)))
+                    .thenThrow(new RuntimeException("Falha no banco de dados"));
             assertThrows(RuntimeException.class, () -> service.confirmacao(request));
+            assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("1A")));
+        }
+
+        @Test
+        @DisplayName("Quando o passageiro for alterado por outra requisição durante o check-in, deve repetir o check-in com os dados atualizados")
+        void confirmacao_conflitoVersao() {
+            Passageiro desatualizado = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            Passageiro atualizado = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenReturn(Optional.of(desatualizado), Optional.of(atualizado));
+            Mockito.when(repository.save(Mockito.any(Passageiro.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Passageiro.class, "111.111.111-11"))
+                    .thenReturn(atualizado);
+            var resultado = service.confirmacao(request);
+            assertEquals(atualizado.getConfirmacao().getEticket(), resultado.eticket());
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("1A")));
+        }
+
+        @Test
+        @DisplayName("Quando o conflito de versão persistir após todas as tentativas, deve lançar exceção de conflito")
+        void confirmacao_conflitoVersaoPersistente() {
+            ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenAnswer(invocation -> Optional.of(new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100)));
+            Mockito.when(repository.save(Mockito.any(Passageiro.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Passageiro.class, "111.111.111-11"));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.CHECKIN_ALTERADO, erro.getCodigo());
+            Mockito.verify(repository, Mockito.times(3)).save(Mockito.any(Passageiro.class));
+            assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("1A")));
+        }
+
+        @Test
+        @DisplayName("Quando o banco de dados rejeitar o assento por já estar ocupado, deve lançar exceção de conflito e manter o assento ocupado")
+        void confirmacao_restricaoAssento() {
+            Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
+            Mockito.when(repository.findById(Mockito.anyString()))
+                    .thenReturn(Optional.of(passageiro));
+            Mockito.when(repository.save(Mockito.any(Passageiro.class)))
+                    .thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.ASSENTO_OCUPADO, erro.getCodigo());
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("1A")));
         }
 
         @Test
@@ -141,98 +361,274 @@ class PassageiroServiceTest {
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "5A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            assertThrows(RuntimeException.class, () -> service.confirmacao(request));
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacao(request));
+            assertEquals(CodigoErro.CHECKIN_DUPLICADO, erro.getCodigo());
         }
 
         @Test
-        @DisplayName("Quando realizar check-in com informações corretas, deve retornar CPF e UUID do passageiro no console")
+        @DisplayName("Quando realizar check-in com informações corretas, deve publicar o CPF e o e-ticket do passageiro na auditoria")
         void confirmacao() {
             Integer milhas = 100;
             Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.VIP, milhas);
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
             var resultado = service.confirmacao(request);
             assertNotNull(resultado);
             assertEquals(passageiro.getCpf(), request.cpf());
+            Mockito.verify(auditoria).publica(passageiro.getCpf(), resultado.eticket(), "1A", resultado.dataHoraConfirmacao());
         }
 
         @Test
-        @DisplayName("Quando realizar check-in com informações corretas e o paciente for VIP, deve incrementar as milhas do passageiro em + 100")
+        @DisplayName("Quando realizar check-in com informações corretas e o paciente for VIP, deve lançar + 100 milhas no extrato do passageiro")
         void confirmacao_passageiroVIP() {
             Integer milhas = 100;
             Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.VIP, milhas);
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
             var resultado = service.confirmacao(request);
             assertNotNull(resultado);
-            assertEquals(passageiro.getMilhas(), milhas + 100);
+            Mockito.verify(registroMilhas).registra(passageiro.getCpf(), 100, resultado.eticket());
+            assertEquals(milhas, passageiro.getMilhas());
         }
 
         @Test
-        @DisplayName("Quando realizar check-in com informações corretas e o paciente for OURO, deve incrementar as milhas do passageiro em + 80")
+        @DisplayName("Quando realizar check-in com informações corretas e o paciente for OURO, deve lançar + 80 milhas no extrato do passageiro")
         void confirmacao_passageiroOURO() {
             Integer milhas = 100;
             Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.OURO, milhas);
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
             var resultado = service.confirmacao(request);
             assertNotNull(resultado);
-            assertEquals(passageiro.getMilhas(), milhas + 80);
+            Mockito.verify(registroMilhas).registra(passageiro.getCpf(), 80, resultado.eticket());
         }
 
         @Test
-        @DisplayName("Quando realizar check-in com informações corretas e o paciente for PRATA, deve incrementar as milhas do passageiro em + 50")
+        @DisplayName("Quando realizar check-in com informações corretas e o paciente for PRATA, deve lançar + 50 milhas no extrato do passageiro")
         void confirmacao_passageiroPRATA() {
             Integer milhas = 100;
             Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.PRATA, milhas);
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
             var resultado = service.confirmacao(request);
             assertNotNull(resultado);
-            assertEquals(passageiro.getMilhas(), milhas + 50);
+            Mockito.verify(registroMilhas).registra(passageiro.getCpf(), 50, resultado.eticket());
         }
 
         @Test
-        @DisplayName("Quando realizar check-in com informações corretas e o paciente for BRONZE, deve incrementar as milhas do passageiro em + 30")
+        @DisplayName("Quando realizar check-in com informações corretas e o paciente for BRONZE, deve lançar + 30 milhas no extrato do passageiro")
         void confirmacao_passageiroBRONZE() {
             Integer milhas = 100;
             Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.BRONZE, milhas);
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
             var resultado = service.confirmacao(request);
             assertNotNull(resultado);
-            assertEquals(passageiro.getMilhas(), milhas + 30);
+            Mockito.verify(registroMilhas).registra(passageiro.getCpf(), 30, resultado.eticket());
         }
 
         @Test
-        @DisplayName("Quando realizar check-in com informações corretas e o paciente for ASSOCIADO, deve incrementar as milhas do passageiro em + 10")
+        @DisplayName("Quando realizar check-in com informações corretas e o paciente for ASSOCIADO, deve lançar + 10 milhas no extrato do passageiro")
         void confirmacao_passageiroASSOCIADO() {
             Integer milhas = 100;
             Passageiro passageiro = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.now(), Classificacao.ASSOCIADO, milhas);
             ConfirmacaoRequest request = new ConfirmacaoRequest("111.111.111-11", "1A", true, "123456", LocalDateTime.now());
             Mockito.when(repository.findById(Mockito.anyString()))
                     .thenReturn(Optional.of(passageiro));
-            Mockito.when(repository.existsPassageiroByConfirmacao_Assento(Mockito.anyString()))
-                    .thenReturn(false);
             var resultado = service.confirmacao(request);
             assertNotNull(resultado);
-            assertEquals(passageiro.getMilhas(), milhas + 10);
+            Mockito.verify(registroMilhas).registra(passageiro.getCpf(), 10, resultado.eticket());
+        }
+
+        @Test
+        @DisplayName("Quando realizar check-in em lote, deve retornar o resultado de cada confirmação e salvar somente as válidas")
+        void confirmacaoLote() {
+            Passageiro halan = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            Passageiro luciana = new Passageiro("222.222.222-22", "Luciana Lamim", LocalDate.of(2001, 3, 10), Classificacao.OURO, 100);
+            List<ConfirmacaoRequest> requests = List.of(
+                    new ConfirmacaoRequest("111.111.111-11", "1A", true, null, null),
+                    new ConfirmacaoRequest("222.222.222-22", "1A", true, null, null),
+                    new ConfirmacaoRequest("333.333.333-33", "1B", true, null, null),
+                    new ConfirmacaoRequest("222.222.222-22", "5B", false, null, null)
+            );
+            Mockito.when(repository.findAllById(List.of("111.111.111-11", "222.222.222-22", "333.333.333-33")))
+                    .thenReturn(List.of(halan, luciana));
+
+            List<ConfirmacaoLoteResponse> resultados = service.confirmacaoLote(requests);
+
+            assertEquals(4, resultados.size());
+            assertEquals(200, resultados.get(0).status());
+            assertNotNull(resultados.get(0).eticket());
+            assertEquals(409, resultados.get(1).status());
+            assertEquals(404, resultados.get(2).status());
+            assertEquals(400, resultados.get(3).status());
+            assertNull(luciana.getConfirmacao());
+            Mockito.verify(repository).saveAllAndFlush(List.of(halan));
+        }
+
+        @Test
+        @DisplayName("Quando a gravação do lote falhar, deve gravar cada confirmação separadamente e rejeitar somente as que falharem, com erro 500 nas falhas de infraestrutura")
+        void confirmacaoLote_erroAoSalvar() {
+            Passageiro halan = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            Passageiro luciana = new Passageiro("222.222.222-22", "Luciana Lamim", LocalDate.of(2001, 3, 10), Classificacao.OURO, 100);
+            Passageiro ross = new Passageiro("333.333.333-33", "Ross Geller", LocalDate.of(1966, 11, 2), Classificacao.OURO, 100);
+            List<ConfirmacaoRequest> requests = List.of(
+                    new ConfirmacaoRequest("111.111.111-11", "2C", true, null, null),
+                    new ConfirmacaoRequest("222.222.222-22", "2D", true, null, null),
+                    new ConfirmacaoRequest("333.333.333-33", "2E", true, null, null));
+            Mockito.when(repository.findAllById(Mockito.anyList()))
+                    .thenReturn(List.of(halan, luciana, ross));
+            Mockito.when(repository.saveAllAndFlush(Mockito.anyList()))
+                    .thenThrow(new RuntimeException("Falha no banco de dados"));
+            Mockito.when(repository.findById("111.111.111-11"))
+                    .thenReturn(Optional.of(new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100)));
+            Mockito.when(repository.findById("222.222.222-22"))
+                    .thenReturn(Optional.of(new Passageiro("222.222.222-22", "Luciana Lamim", LocalDate.of(2001, 3, 10), Classificacao.OURO, 100)));
+            Mockito.when(repository.findById("333.333.333-33"))
+                    .thenReturn(Optional.of(new Passageiro("333.333.333-33", "Ross Geller", LocalDate.of(1966, 11, 2), Classificacao.OURO, 100)));
+            Mockito.when(repository.saveAndFlush(Mockito.any(Passageiro.class))).thenAnswer(invocacao -> {
+                Passageiro passageiro = invocacao.getArgument(0);
+                if (passageiro.getCpf().equals("222.222.222-22")) {
+                    throw new DataIntegrityViolationException("uk_passageiros_voo_assento");
+                }
+                if (passageiro.getCpf().equals("333.333.333-33")) {
+                    throw new RuntimeException("Falha no banco de dados");
+                }
+                return passageiro;
+            });
+
+            List<ConfirmacaoLoteResponse> resultados = service.confirmacaoLote(requests);
+
+            assertEquals(List.of(200, 409, 500), resultados.stream().map(ConfirmacaoLoteResponse::status).toList());
+            assertEquals(CodigoErro.ASSENTO_OCUPADO.getMensagem(), resultados.get(1).erro());
+            assertEquals(CodigoErro.ERRO_INTERNO.getMensagem(), resultados.get(2).erro());
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("2C")));
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("2D")));
+            assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("2E")));
+            Mockito.verify(registroMilhas).registra(Mockito.eq("111.111.111-11"), Mockito.anyInt(), Mockito.eq(resultados.get(0).eticket()));
+            Mockito.verifyNoMoreInteractions(registroMilhas);
+        }
+
+        @Test
+        @DisplayName("Quando realizar check-in automático de um grupo, deve atribuir assentos adjacentes na primeira fileira com assentos livres")
+        void confirmacaoAutomatica() {
+            Passageiro halan = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            Passageiro luciana = new Passageiro("222.222.222-22", "Luciana Lamim", LocalDate.of(2001, 3, 10), Classificacao.OURO, 100);
+            mapaAssentos.ocupa(mapaAssentos.indice("1B"));
+            Mockito.when(repository.findAllById(List.of("111.111.111-11", "222.222.222-22")))
+                    .thenReturn(List.of(luciana, halan));
+
+            List<ConfirmacaoLoteResponse> resultados = service.confirmacaoAutomatica(new AtribuicaoAssentosRequest(List.of("111.111.111-11", "222.222.222-22"), false));
+
+            assertEquals("1C", resultados.get(0).assento());
+            assertEquals("111.111.111-11", resultados.get(0).cpf());
+            assertEquals("1D", resultados.get(1).assento());
+            assertEquals("1D", luciana.getConfirmacao().getAssento());
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("1D")));
+            Mockito.verify(repository).saveAllAndFlush(List.of(halan, luciana));
+            Mockito.verify(registroMilhas).registra("222.222.222-22", 80, luciana.getConfirmacao().getEticket());
+        }
+
+        @Test
+        @DisplayName("Quando outro passageiro já gravou um dos assentos do grupo, ele deve continuar ocupado e os demais devem ser liberados")
+        void confirmacaoAutomatica_assentoGravado() {
+            Passageiro halan = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            Passageiro luciana = new Passageiro("222.222.222-22", "Luciana Lamim", LocalDate.of(2001, 3, 10), Classificacao.OURO, 100);
+            Mockito.when(repository.findAllById(Mockito.anyList()))
+                    .thenReturn(List.of(halan, luciana));
+            Mockito.when(repository.saveAllAndFlush(Mockito.anyList()))
+                    .thenThrow(new DataIntegrityViolationException("uk_passageiros_voo_assento"));
+            Mockito.when(repository.findAssentosOcupados(Mockito.any()))
+                    .thenReturn(List.of("1B"));
+
+            DominioException erro = assertThrows(DominioException.class,
+                    () -> service.confirmacaoAutomatica(new AtribuicaoAssentosRequest(List.of("111.111.111-11", "222.222.222-22"), false)));
+
+            assertEquals(CodigoErro.ASSENTO_OCUPADO, erro.getCodigo());
+
+            assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("1A")));
+            assertTrue(mapaAssentos.ocupado(mapaAssentos.indice("1B")));
+            Mockito.verifyNoInteractions(registroMilhas);
+        }
+
+        @Test
+        @DisplayName("Quando o grupo tiver um menor de idade, não deve atribuir assentos nas fileiras de emergência")
+        void confirmacaoAutomatica_menorIdade() {
+            Passageiro halan = new Passageiro("111.111.111-11", "Halan Germano Bacca", LocalDate.of(2000, 7, 21), Classificacao.VIP, 100);
+            Passageiro emma = new Passageiro("222.222.222-22", "Emma Geller", LocalDate.now().minusYears(10), Classificacao.VIP, 100);
+            for (int indice = 0; indice < mapaAssentos.indice("5A"); indice++) {
+                mapaAssentos.ocupa(indice);
+            }
+            Mockito.when(repository.findAllById(Mockito.anyList()))
+                    .thenReturn(List.of(halan, emma));
+
+            List<ConfirmacaoLoteResponse> resultados = service.confirmacaoAutomatica(new AtribuicaoAssentosRequest(List.of("111.111.111-11", "222.222.222-22", "222.222.222-22"), true));
+
+            assertEquals(List.of("7A", "7B"), resultados.stream().map(ConfirmacaoLoteResponse::assento).toList());
+        }
+
+        @Test
+        @DisplayName("Quando o grupo for maior que a fileira, deve atribuir assentos adjacentes em fileiras consecutivas")
+        void confirmacaoAutomatica_grupoMaiorQueFileira() {
+            List<String> cpfs = new ArrayList<>();
+            List<Passageiro> grupo = grupo(8, cpfs);
+            Mockito.when(repository.findAllById(cpfs)).thenReturn(grupo);
+
+            List<ConfirmacaoLoteResponse> resultados = service.confirmacaoAutomatica(new AtribuicaoAssentosRequest(cpfs, true));
+
+            assertEquals(List.of("1A", "1B", "1C", "1D", "2A", "2B", "2C", "2D"), resultados.stream().map(ConfirmacaoLoteResponse::assento).toList());
+        }
+
+        @Test
+        @DisplayName("Quando a versão de um passageiro do grupo for alterada por outra requisição, deve liberar os assentos e repetir o check-in")
+        void confirmacaoAutomatica_conflitoVersao() {
+            List<String> cpfs = new ArrayList<>();
+            List<Passageiro> grupo = grupo(2, cpfs);
+            Mockito.when(repository.findAllById(cpfs))
+                    .thenReturn(grupo(2, new ArrayList<>()))
+                    .thenReturn(grupo);
+            Mockito.when(repository.saveAllAndFlush(Mockito.anyList()))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Passageiro.class, cpfs.get(0)))
+                    .thenReturn(grupo);
+
+            List<ConfirmacaoLoteResponse> resultados = service.confirmacaoAutomatica(new AtribuicaoAssentosRequest(cpfs, true));
+
+            assertEquals(List.of("1A", "1B"), resultados.stream().map(ConfirmacaoLoteResponse::assento).toList());
+            assertFalse(mapaAssentos.ocupado(mapaAssentos.indice("1C")));
+            Mockito.verify(repository, Mockito.times(2)).saveAllAndFlush(Mockito.anyList());
+        }
+
+        @Test
+        @DisplayName("Quando não houver assentos adjacentes suficientes para o grupo, deve lançar exceção sem ocupar assentos")
+        void confirmacaoAutomatica_semAssentos() {
+            for (int indice = 0; indice < mapaAssentos.assentos().size(); indice += 2) {
+                mapaAssentos.ocupa(indice);
+            }
+            long versao = mapaAssentos.versao();
+            List<String> cpfs = new ArrayList<>();
+            Mockito.when(repository.findAllById(cpfs)).thenReturn(grupo(2, cpfs));
+
+            DominioException erro = assertThrows(DominioException.class, () -> service.confirmacaoAutomatica(new AtribuicaoAssentosRequest(cpfs, true)));
+
+            assertEquals(CodigoErro.ASSENTOS_INDISPONIVEIS, erro.getCodigo());
+            assertEquals(versao, mapaAssentos.versao());
+            Mockito.verify(repository, Mockito.never()).saveAllAndFlush(Mockito.anyList());
+        }
+
+        private List<Passageiro> grupo(int quantidade, List<String> cpfs) {
+            List<Passageiro> grupo = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                String cpf = "00" + i + ".000.000-00";
+                cpfs.add(cpf);
+                grupo.add(new Passageiro(cpf, "Passageiro " + i, LocalDate.of(1990, 1, 1), Classificacao.VIP, 100));
+            }
+            return grupo;
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package tech.devinhouse.labsky.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.devinhouse.labsky.enums.ClasseAssento;
+import tech.devinhouse.labsky.enums.Classificacao;
+import tech.devinhouse.labsky.enums.CodigoErro;
+import tech.devinhouse.labsky.models.Passageiro;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoliticaAssentosTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2024, 3, 10);
+
+    private final PoliticaAssentos politica = new PoliticaAssentos(2, Map.of(
+            ClasseAssento.EMERGENCIA, new PoliticaAssentos.Restricao(18, true, EnumSet.allOf(Classificacao.class)),
+            ClasseAssento.DIANTEIRA, new PoliticaAssentos.Restricao(0, false, EnumSet.of(Classificacao.VIP, Classificacao.OURO))));
+
+    @Test
+    @DisplayName("Deve calcular a idade em anos completos pela data de nascimento, e não somente pelo ano")
+    void idade() {
+        assertEquals(18, PoliticaAssentos.idade(LocalDate.of(2006, 3, 10), HOJE));
+        assertEquals(17, PoliticaAssentos.idade(LocalDate.of(2006, 3, 11), HOJE));
+        assertEquals(17, PoliticaAssentos.idade(LocalDate.of(2006, 12, 31), HOJE));
+        assertEquals(-1, PoliticaAssentos.idade(null, HOJE));
+    }
+
+    @Test
+    @DisplayName("Deve permitir as classes de assento cujas restrições o passageiro atende")
+    void classesPermitidas() {
+        Passageiro vipAdulto = new Passageiro("111.111.111-11", "Phoebe Buffay", LocalDate.of(1967, 2, 16), Classificacao.VIP, 100);
+        Passageiro prataMenor = new Passageiro("222.222.222-22", "Emma Geller", LocalDate.of(2006, 3, 11), Classificacao.PRATA, 0);
+
+        assertEquals(ClasseAssento.TODAS, politica.classesPermitidas(vipAdulto, true, HOJE));
+        assertEquals(ClasseAssento.DIANTEIRA.bit() | ClasseAssento.PADRAO.bit(), politica.classesPermitidas(vipAdulto, false, HOJE));
+        assertEquals(ClasseAssento.PADRAO.bit(), politica.classesPermitidas(prataMenor, true, HOJE));
+    }
+
+    @Test
+    @DisplayName("Deve informar o erro da primeira restrição não atendida pelo passageiro")
+    void motivo() {
+        Passageiro menor = new Passageiro("222.222.222-22", "Emma Geller", LocalDate.of(2006, 3, 11), Classificacao.VIP, 0);
+        Passageiro prata = new Passageiro("333.333.333-33", "Ross Geller", LocalDate.of(1967, 10, 18), Classificacao.PRATA, 0);
+
+        assertEquals(CodigoErro.MENOR_IDADE_EMERGENCIA, politica.motivo(ClasseAssento.EMERGENCIA, menor, false, HOJE));
+        assertEquals(CodigoErro.MALAS_EMERGENCIA, politica.motivo(ClasseAssento.EMERGENCIA, prata, false, HOJE));
+        assertEquals(CodigoErro.CLASSIFICACAO_ASSENTO, politica.motivo(ClasseAssento.DIANTEIRA, prata, true, HOJE));
+    }
+
+    @Test
+    @DisplayName("Deve usar as fileiras dianteiras da configuração da aeronave e, sem configuração própria, as fileiras padrão")
+    void daAeronave() {
+        PoliticaAssentos porAeronave = new PoliticaAssentos(2, Map.of(PoliticaAssentos.aeronave(30, "abcdef"), 4), Map.of());
+
+        assertEquals(ClasseAssento.DIANTEIRA, porAeronave.daAeronave(30, "ABCDEF").classe(4, false));
+        assertEquals(ClasseAssento.PADRAO, porAeronave.daAeronave(30, "ABCDEF").classe(5, false));
+        assertEquals(ClasseAssento.PADRAO, porAeronave.daAeronave(10, "ABCDEF").classe(3, false));
+        assertSame(porAeronave, porAeronave.daAeronave(10, "ABCDEF"));
+        assertEquals(ClasseAssento.DIANTEIRA.bit() | ClasseAssento.PADRAO.bit() | ClasseAssento.EMERGENCIA.bit(),
+                porAeronave.daAeronave(30, "ABCDEF").classesPermitidas(new Passageiro("111.111.111-11", "Phoebe Buffay"), false, HOJE));
+    }
+
+    @Test
+    @DisplayName("As fileiras de emergência devem ter precedência sobre as dianteiras")
+    void classe() {
+        assertEquals(ClasseAssento.DIANTEIRA, politica.classe(1, false));
+        assertEquals(ClasseAssento.EMERGENCIA, politica.classe(2, true));
+        assertEquals(ClasseAssento.PADRAO, politica.classe(3, false));
+    }
+
+}
@@ -0,0 +1,148 @@
+package tech.devinhouse.labsky.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.devinhouse.labsky.models.LancamentoMilhas;
+import tech.devinhouse.labsky.records.response.ConsultaCPFResponse;
+import tech.devinhouse.labsky.repositories.LancamentoMilhasRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistroMilhasTest {
+
+    @Mock
+    private LancamentoMilhasRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private CacheConsultaCpf cache;
+
+    private RegistroMilhas registroMilhas;
+
+    @BeforeEach
+    void inicia() {
+        cache = new CacheConsultaCpf(100, Duration.ofMinutes(5));
+        registroMilhas = new RegistroMilhas(repository, jdbcTemplate, new TransactionTemplate(transactionManager), cache, registry, 2, 3, 2);
+    }
+
+    @Test
+    @DisplayName("Deve gravar os lançamentos pendentes em lotes e conciliar o saldo de milhas de cada passageiro")
+    @SuppressWarnings("unchecked")
+    void grava() {
+        registroMilhas.registra("111.111.111-11", 100, "a");
+        registroMilhas.registra("111.111.111-11", 100, "b");
+        registroMilhas.registra("222.222.222-22", 30, "c");
+
+        registroMilhas.grava();
+
+        ArgumentCaptor<List<LancamentoMilhas>> lotes = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository, Mockito.times(2)).saveAll(lotes.capture());
+        assertEquals(2, lotes.getAllValues().get(0).size());
+        assertEquals(1, lotes.getAllValues().get(1).size());
+
+        ArgumentCaptor<List<Object[]>> conciliacoes = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(2)).batchUpdate(Mockito.anyString(), conciliacoes.capture());
+        assertArrayEquals(new Object[]{200, "111.111.111-11"}, conciliacoes.getAllValues().get(0).get(0));
+        assertArrayEquals(new Object[]{30, "222.222.222-22"}, conciliacoes.getAllValues().get(1).get(0));
+    }
+
+    @Test
+    @DisplayName("Após conciliar o saldo, deve remover do cache a consulta do passageiro")
+    void grava_invalidaCache() {
+        ConsultaCPFResponse desatualizada = new ConsultaCPFResponse("111.111.111-11", "Halan Germano Bacca", null, null, 100);
+        cache.atualiza(desatualizada);
+        registroMilhas.registra("111.111.111-11", 100, "a");
+
+        registroMilhas.grava();
+
+        ConsultaCPFResponse atual = new ConsultaCPFResponse("111.111.111-11", "Halan Germano Bacca", null, null, 200);
+        assertSame(atual, cache.busca("111.111.111-11", cpf -> atual));
+    }
+
+    @Test
+    @DisplayName("Quando a gravação falhar, os lançamentos devem voltar para a fila e ser gravados na próxima execução")
+    void grava_falha() {
+        Mockito.when(repository.saveAll(Mockito.anyList()))
+                .thenThrow(new RuntimeException("Falha no banco de dados"))
+                .thenThrow(new RuntimeException("Falha no banco de dados"))
+                .thenReturn(List.of());
+        registroMilhas.registra("111.111.111-11", 100, "a");
+
+        registroMilhas.grava();
+        assertEquals(1, registry.get("milhas.pendentes").gauge().value());
+        registroMilhas.grava();
+
+        assertEquals(0, registry.get("milhas.pendentes").gauge().value());
+        Mockito.verify(repository, Mockito.times(3)).saveAll(Mockito.anyList());
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(Mockito.anyString(), Mockito.<Object[]>anyList());
+    }
+
+    @Test
+    @DisplayName("Quando um lançamento falhar em todas as tentativas, deve gravar os demais do lote e descartar somente ele")
+    @SuppressWarnings("unchecked")
+    void grava_lancamentoInvalido() {
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocacao -> {
+            List<LancamentoMilhas> lancamentos = invocacao.getArgument(0);
+            if (lancamentos.stream().anyMatch(lancamento -> lancamento.getEticket().equals("invalido"))) {
+                throw new RuntimeException("Falha no banco de dados");
+            }
+            return lancamentos;
+        });
+        registroMilhas.registra("111.111.111-11", 100, "invalido");
+        registroMilhas.registra("222.222.222-22", 30, "b");
+
+        registroMilhas.grava();
+        registroMilhas.grava();
+        registroMilhas.grava();
+
+        ArgumentCaptor<List<Object[]>> conciliacoes = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(Mockito.anyString(), conciliacoes.capture());
+        assertArrayEquals(new Object[]{30, "222.222.222-22"}, conciliacoes.getValue().get(0));
+        assertEquals(1, registry.get("milhas.descartados").tag("motivo", "tentativas").counter().count());
+        assertEquals(0, registry.get("milhas.pendentes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Quando a fila estiver cheia, deve descartar o lançamento e contar o descarte")
+    void registra_filaCheia() {
+        for (int i = 0; i < 4; i++) {
+            registroMilhas.registra("111.111.111-11", 100, String.valueOf(i));
+        }
+
+        assertEquals(3, registry.get("milhas.pendentes").gauge().value());
+        assertEquals(1, registry.get("milhas.descartados").tag("motivo", "fila_cheia").counter().count());
+    }
+
+    @Test
+    @DisplayName("No encerramento, deve descartar os lançamentos que não puderam ser gravados")
+    void encerra() {
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenThrow(new RuntimeException("Falha no banco de dados"));
+        registroMilhas.registra("111.111.111-11", 100, "a");
+
+        registroMilhas.encerra();
+
+        assertEquals(0, registry.get("milhas.pendentes").gauge().value());
+        assertEquals(1, registry.get("milhas.descartados").tag("motivo", "encerramento").counter().count());
+    }
+
+}
@@ -0,0 +1,190 @@
+package tech.devinhouse.labsky.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.devinhouse.labsky.records.eventos.EventoConfirmacao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransmissaoCheckinTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final TransmissaoCheckin transmissao = new TransmissaoCheckin(new ObjectMapper().registerModule(new JavaTimeModule()), registry,
+            4, Duration.ofMillis(100), Duration.ofSeconds(15));
+
+    @AfterEach
+    void encerra() {
+        transmissao.encerra();
+    }
+
+    @Test
+    @DisplayName("Deve enviar os check-ins publicados desde o último envio em um único lote, somente do voo assinado")
+    void distribui_lote() throws Exception {
+        DestinoGravado destino = new DestinoGravado();
+        transmissao.assina(null, "LS1001", destino);
+
+        publica("LS1001", "1A");
+        publica("LS1002", "1B");
+        publica("LS1001", "1C");
+
+        Lote lote = distribui(destino);
+        assertFalse(lote.lacuna());
+        assertEquals(List.of(1L, 3L), lote.eventos().stream().map(TransmissaoCheckin.Evento::id).toList());
+        assertTrue(lote.eventos().get(1).json().contains("\"assento\":\"1C\""));
+    }
+
+    @Test
+    @DisplayName("Quando o assinante reconecta com o Last-Event-ID, deve receber os eventos seguintes do histórico")
+    void assina_reconexao() throws Exception {
+        publica("LS1001", "1A");
+        publica("LS1001", "1B");
+        publica("LS1001", "1C");
+        DestinoGravado destino = new DestinoGravado();
+
+        transmissao.assina(1L, null, destino);
+
+        assertEquals(List.of(2L, 3L), destino.proximo().eventos().stream().map(TransmissaoCheckin.Evento::id).toList());
+    }
+
+    @Test
+    @DisplayName("Quando os eventos seguintes ao Last-Event-ID já saíram do histórico, deve avisar a lacuna")
+    void assina_lacuna() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            publica("LS1001", i + "A");
+        }
+        DestinoGravado destino = new DestinoGravado();
+        DestinoGravado reiniciado = new DestinoGravado();
+
+        transmissao.assina(2L, null, destino);
+        transmissao.assina(99L, null, reiniciado);
+
+        assertTrue(destino.proximo().lacuna());
+        assertTrue(reiniciado.proximo().lacuna());
+        publica("LS1001", "1F");
+        assertEquals(11L, distribui(destino).eventos().get(0).id());
+    }
+
+    @Test
+    @DisplayName("Quando o assinante lento fica para trás de todo o histórico, deve ser desconectado sem afetar os demais")
+    void distribui_assinanteLento() throws Exception {
+        CountDownLatch liberado = new CountDownLatch(1);
+        DestinoGravado lento = new DestinoGravado(liberado);
+        DestinoGravado rapido = new DestinoGravado();
+        transmissao.assina(null, null, lento);
+        transmissao.assina(null, null, rapido);
+
+        publica("LS1001", "1A");
+        distribui(rapido);
+        for (int i = 2; i <= 10; i++) {
+            publica("LS1001", i + "A");
+            assertEquals(i, distribui(rapido).eventos().get(0).id());
+        }
+
+        liberado.countDown();
+        lento.proximo();
+        for (int i = 0; i < 100 && !lento.encerrado; i++) {
+            transmissao.distribui();
+            Thread.sleep(10);
+        }
+        assertTrue(lento.encerrado);
+        assertEquals(1, transmissao.assinantes());
+        assertEquals(1, registry.get("transmissao.descartados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Dentro de uma transação, o check-in só deve ser transmitido depois do commit")
+    void publica_transacao() throws Exception {
+        DestinoGravado destino = new DestinoGravado();
+        transmissao.assina(null, null, destino);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publica("LS1001", "1A");
+            transmissao.distribui();
+            assertNull(destino.lotes.poll(100, TimeUnit.MILLISECONDS));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1L, distribui(destino).eventos().get(0).id());
+    }
+
+    /**
+     * Distribui os eventos até o destino receber um lote, já que o envio anterior ao destino pode não ter terminado.
+     */
+    private Lote distribui(DestinoGravado destino) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            transmissao.distribui();
+            Lote lote = destino.lotes.poll(10, TimeUnit.MILLISECONDS);
+            if (lote != null) {
+                return lote;
+            }
+        }
+        return fail("O destino não recebeu nenhum lote");
+    }
+
+    private void publica(String voo, String assento) {
+        transmissao.publica(new EventoConfirmacao(voo, "111.111.111-11", "Phoebe Buffay", assento, LocalDateTime.now(), 1));
+    }
+
+    private record Lote(List<TransmissaoCheckin.Evento> eventos, boolean lacuna) {
+    }
+
+    private static final class DestinoGravado implements TransmissaoCheckin.Destino {
+
+        private final BlockingQueue<Lote> lotes = new LinkedBlockingQueue<>();
+        private final CountDownLatch liberado;
+        private volatile boolean encerrado;
+
+        private DestinoGravado() {
+            this(new CountDownLatch(0));
+        }
+
+        private DestinoGravado(CountDownLatch liberado) {
+            this.liberado = liberado;
+        }
+
+        @Override
+        public void envia(List<TransmissaoCheckin.Evento> eventos, boolean lacuna) {
+            try {
+                liberado.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lotes.add(new Lote(eventos, lacuna));
+        }
+
+        @Override
+        public void pulso() {
+        }
+
+        @Override
+        public void encerra() {
+            encerrado = true;
+        }
+
+        private Lote proximo() throws InterruptedException {
+            Lote lote = lotes.poll(5, TimeUnit.SECONDS);
+            assertNotNull(lote);
+            return lote;
+        }
+
+    }
+
+}